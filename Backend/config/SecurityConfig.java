@@ -3,6 +3,7 @@ package com.quizapp.config;
 import com.quizapp.filter.JwtFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -36,6 +37,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/google-signin").permitAll()
                         .requestMatchers("/api/profile/all").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/uploads/profile-pics/**").permitAll()
                         .requestMatchers("/api/chatbot/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -63,6 +65,7 @@ public class SecurityConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("*")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor", "X-Total-Count")
                         .allowCredentials(true);
             }
         };
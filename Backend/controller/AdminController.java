@@ -1,11 +1,18 @@
 package com.quizapp.controller;
 
 import com.quizapp.dto.AdminAnalyticsResponse;
+import com.quizapp.event.UserChangedEvent;
 import com.quizapp.model.User;
 import com.quizapp.repository.UserRepository;
 import com.quizapp.repository.QuizRepository;
 import com.quizapp.service.AdminService;
+import com.quizapp.service.AvatarService;
+import com.quizapp.service.LeaderboardArchiveService;
+import com.quizapp.service.ProfileResponseCache;
+import com.quizapp.service.UserProgressService;
+import com.quizapp.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,6 +27,18 @@ public class AdminController {
     private QuizRepository quizRepository;
     @Autowired
     private AdminService adminService;
+    @Autowired
+    private UserProgressService userProgressService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private LeaderboardArchiveService leaderboardArchiveService;
+    @Autowired
+    private UserStatsService userStatsService;
+    @Autowired
+    private ProfileResponseCache profileResponseCache;
+    @Autowired
+    private AvatarService avatarService;
 
     @GetMapping("/analytics")
     public Map<String, Object> getAnalytics() {
@@ -70,6 +89,7 @@ public class AdminController {
         user.setRole(User.Role.valueOf(((String) payload.get("role")).toUpperCase()));
         user.setCollege((String) payload.get("college"));
         user = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(user));
         Map<String, Object> map = new HashMap<>();
         map.put("id", user.getId());
         map.put("name", user.getName());
@@ -79,8 +99,39 @@ public class AdminController {
         return map;
     }
 
+    @PostMapping("/progress/backfill")
+    public Map<String, Object> backfillProgress() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("usersUpdated", userProgressService.backfill());
+        return result;
+    }
+
+    @PostMapping("/leaderboard/archive")
+    public Map<String, Object> archiveLeaderboards() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("rowsArchived", leaderboardArchiveService.archiveClosedDays());
+        return result;
+    }
+
+    @PostMapping("/stats/verify")
+    public Map<String, Object> verifyUserStats(@RequestParam(defaultValue = "false") boolean repair) {
+        UserStatsService.VerificationResult verification = userStatsService.verify(repair);
+        Map<String, Object> result = new HashMap<>();
+        result.put("usersChecked", verification.usersChecked());
+        result.put("drifted", verification.drifted());
+        result.put("repaired", verification.repaired());
+        return result;
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>(profileResponseCache.stats());
+        result.put("avatarBytes", avatarService.cacheStats());
+        return result;
+    }
+
     @DeleteMapping("/users/{id}")
     public void deleteUser(@PathVariable Long id) {
-        userRepository.deleteById(id);
+        adminService.deleteUser(id);
     }
 } 
\ No newline at end of file
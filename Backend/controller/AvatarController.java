@@ -0,0 +1,24 @@
+package com.quizapp.controller;
+
+import com.quizapp.service.AvatarService;
+import com.quizapp.service.ProfilePictureStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class AvatarController {
+    private final AvatarService avatarService;
+
+    // Same path the stored profilePicture URLs already use
+    @GetMapping(ProfilePictureStore.URL_PREFIX + "{name}")
+    public void getAvatar(@PathVariable String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        avatarService.serve(name, request, response);
+    }
+}
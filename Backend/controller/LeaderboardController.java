@@ -1,11 +1,18 @@
 package com.quizapp.controller;
 
+import com.quizapp.dto.LeaderboardResponse;
 import com.quizapp.dto.LeaderboardResult;
+import com.quizapp.dto.LeaderboardWindowResponse;
+import com.quizapp.service.LeaderboardArchiveService;
 import com.quizapp.service.LeaderboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,14 +20,43 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LeaderboardController {
     private final LeaderboardService leaderboardService;
+    private final LeaderboardArchiveService leaderboardArchiveService;
 
     @GetMapping("/daily")
-    public ResponseEntity<LeaderboardResult> getDailyLeaderboard(@RequestParam Long userId) {
-        return ResponseEntity.ok(leaderboardService.getDailyLeaderboardWithUser(userId));
+    public ResponseEntity<byte[]> getDailyLeaderboard(@RequestParam Long userId) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(leaderboardService.getDailyLeaderboardJson(userId));
     }
 
     @GetMapping("/college")
-    public ResponseEntity<LeaderboardResult> getCollegeLeaderboard(@RequestParam String college, @RequestParam Long userId) {
-        return ResponseEntity.ok(leaderboardService.getCollegeLeaderboardWithUser(college, userId));
+    public ResponseEntity<byte[]> getCollegeLeaderboard(@RequestParam String college, @RequestParam Long userId) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(leaderboardService.getCollegeLeaderboardJson(college, userId));
+    }
+
+    @GetMapping("/window/{window}")
+    public ResponseEntity<LeaderboardResult> getWindowLeaderboard(@PathVariable String window, @RequestParam Long userId) {
+        return ResponseEntity.ok(leaderboardService.getWindowLeaderboardWithUser(window, userId));
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<List<LeaderboardResponse>> getHistory(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                @RequestParam(required = false) String college,
+                                                                @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(leaderboardArchiveService.getStandings(date, college, limit));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard(@RequestParam Long userId, @RequestParam(defaultValue = "global") String scope) {
+        return leaderboardService.subscribe(userId, scope);
+    }
+
+    @GetMapping("/around")
+    public ResponseEntity<LeaderboardWindowResponse> getLeaderboardAround(@RequestParam Long userId,
+                                                                          @RequestParam(defaultValue = "5") int radius,
+                                                                          @RequestParam(defaultValue = "global") String scope) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboardAround(userId, radius, scope));
     }
 } 
\ No newline at end of file
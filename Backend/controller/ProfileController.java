@@ -1,10 +1,12 @@
 package com.quizapp.controller;
 
 import com.quizapp.dto.ProfileResponse;
+import com.quizapp.dto.ProfileSuggestion;
 import com.quizapp.dto.SearchProfileResponse;
 import com.quizapp.dto.ProfileUpdateRequest;
 import com.quizapp.service.ProfileService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -14,6 +16,8 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/api/profile")
 @RequiredArgsConstructor
 public class ProfileController {
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final ProfileService profileService;
 
     @GetMapping
@@ -22,19 +26,36 @@ public class ProfileController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<SearchProfileResponse>> searchStudents(@RequestParam String query) {
-        return ResponseEntity.ok(profileService.searchStudents(query));
+    public ResponseEntity<List<SearchProfileResponse>> searchStudents(@RequestParam String query,
+                                                                      @RequestParam(required = false) Integer page,
+                                                                      @RequestParam(required = false) Integer size) {
+        return paged(profileService.searchStudents(query, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProfileSuggestion>> suggestStudents(@RequestParam("q") String prefix,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(profileService.suggestStudents(prefix, limit));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<SearchProfileResponse>> getAllProfiles(@RequestParam(value = "query", required = false) String query) {
+    public ResponseEntity<List<SearchProfileResponse>> getAllProfiles(@RequestParam(value = "query", required = false) String query,
+                                                                      @RequestParam(required = false) Integer page,
+                                                                      @RequestParam(required = false) Integer size) {
         if (query != null && !query.isEmpty()) {
-            return ResponseEntity.ok(profileService.getAllProfiles(query));
+            return paged(profileService.getAllProfiles(query, page, size));
         } else {
-            return ResponseEntity.ok(profileService.getAllProfiles());
+            return paged(profileService.getAllProfiles(page, size));
         }
     }
 
+    // Body stays a plain array for existing clients; the total goes in a header
+    private static ResponseEntity<List<SearchProfileResponse>> paged(Page<SearchProfileResponse> page) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
+
     @GetMapping("/public/{userId}")
     public ResponseEntity<SearchProfileResponse> getPublicProfile(@PathVariable Long userId) {
         return ResponseEntity.ok(profileService.getPublicProfile(userId));
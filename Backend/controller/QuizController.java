@@ -1,10 +1,16 @@
 package com.quizapp.controller;
 
 import com.quizapp.dto.QuizCreateRequest;
+import com.quizapp.dto.QuizListPage;
 import com.quizapp.dto.QuizResponse;
 import com.quizapp.dto.QuizSubmitRequest;
+import com.quizapp.service.DailyQuizScheduler;
+import com.quizapp.service.QuizCatalog;
+import com.quizapp.service.QuizSampler;
 import com.quizapp.service.QuizService;
+import com.quizapp.service.SolvedQuizCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,12 +28,22 @@ import com.quizapp.repository.UserRepository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 @RestController
 @RequestMapping("/api/quiz")
 @RequiredArgsConstructor
 public class QuizController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_RANDOM_COUNT = 50;
+
     private final QuizService quizService;
+    private final QuizCatalog quizCatalog;
+    private final SolvedQuizCache solvedQuizCache;
+    private final QuizSampler quizSampler;
+    private final DailyQuizScheduler dailyQuizScheduler;
 
     @Autowired
     private UserQuizAttemptRepository userQuizAttemptRepository;
@@ -42,8 +58,11 @@ public class QuizController {
 
     // Add this endpoint for daily quiz
     @GetMapping("/daily")
-    public ResponseEntity<QuizResponse> getDailyQuiz(@RequestParam Long userId) {
-        return ResponseEntity.ok(quizService.getDailyQuiz(userId));
+    public ResponseEntity<byte[]> getDailyQuiz(@RequestParam Long userId) {
+        // Served from the scheduler's pre-serialized assignment for today
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(dailyQuizScheduler.getDailyQuizJson(userId));
     }
 
     // Restrict {id} to only match numbers
@@ -59,9 +78,8 @@ public class QuizController {
 
     @GetMapping("/solved")
     public ResponseEntity<List<SolvedQuizDTO>> getSolvedQuizzes(@RequestParam Long userId) {
-        List<UserQuizAttempt> attempts = userQuizAttemptRepository.findByUserId(userId);
+        List<UserQuizAttempt> attempts = userQuizAttemptRepository.findWithQuizByUserIdAndSolvedTrue(userId);
         List<SolvedQuizDTO> solved = attempts.stream()
-            .filter(UserQuizAttempt::isSolved)
             .map(a -> new SolvedQuizDTO(
                 a.getQuiz().getId(),
                 a.getQuiz().getTopic(), // Use topic for title
@@ -75,37 +93,18 @@ public class QuizController {
     }
 
     @GetMapping("/list")
-    public List<Map<String, Object>> getQuizList(@RequestParam Long userId, @RequestParam(required = false) String topic, @RequestParam(required = false) String knowledgeLevel) {
-        List<Quiz> quizzes = quizService.getAllQuizEntities();
-        if (topic != null && !topic.isEmpty()) {
-            quizzes = quizzes.stream().filter(q -> q.getTopic().equals(topic)).collect(Collectors.toList());
-        }
-        if (knowledgeLevel != null && !knowledgeLevel.isEmpty()) {
-            quizzes = quizzes.stream().filter(q -> q.getKnowledgeLevel() != null && q.getKnowledgeLevel().name().equalsIgnoreCase(knowledgeLevel)).collect(Collectors.toList());
-        }
-        List<UserQuizAttempt> attempts = userQuizAttemptRepository.findByUserId(userId);
-        Set<Long> solvedQuizIds = attempts.stream()
-            .filter(UserQuizAttempt::isSolved)
-            .map(a -> a.getQuiz().getId())
-            .collect(Collectors.toSet());
-
-        List<Map<String, Object>> result = new ArrayList<>();
-        int questionNumber = 1;
-        for (Quiz quiz : quizzes) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", quiz.getId());
-            map.put("questionNumber", questionNumber++);
-            map.put("question", quiz.getQuestion());
-            map.put("topic", quiz.getTopic());
-            map.put("knowledgeLevel", quiz.getKnowledgeLevel() != null ? quiz.getKnowledgeLevel().name() : "");
-            map.put("option1", quiz.getOption1());
-            map.put("option2", quiz.getOption2());
-            map.put("option3", quiz.getOption3());
-            map.put("option4", quiz.getOption4());
-            map.put("status", solvedQuizIds.contains(quiz.getId()) ? "Solved" : "Unsolved");
-            result.add(map);
+    public ResponseEntity<List<Map<String, Object>>> getQuizList(@RequestParam Long userId,
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) String knowledgeLevel,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        QuizListPage page = quizService.getQuizListPage(userId, topic, knowledgeLevel, cursor, limit);
+        // Body keeps the original array shape; the cursor for the next page travels in a header
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
         }
-        return result;
+        return response.body(page.getItems());
     }
 
     public static class SolvedQuizDTO {
@@ -164,6 +163,7 @@ public class QuizController {
             debug.put("currentStreak", user.getCurrentStreak());
             debug.put("totalQuizzesSolved", user.getTotalQuizzesSolved());
             debug.put("daysActive", user.getDaysActive());
+            debug.put("lastActiveDate", user.getLastActiveDate() != null ? user.getLastActiveDate().toString() : null);
             
             java.util.List<UserQuizAttempt> solvedAttempts = userQuizAttemptRepository.findByUserId(userId).stream()
                 .filter(UserQuizAttempt::isSolved)
@@ -200,35 +200,30 @@ public class QuizController {
     public ResponseEntity<List<QuizResponse>> getRandomUnsolvedQuizzes(
             @RequestParam Long userId,
             @RequestParam(required = false) String topic,
-            @RequestParam(defaultValue = "5") int count) {
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(required = false) Long seed) {
         
-        // Get all quizzes
-        List<Quiz> allQuizzes = quizService.getAllQuizEntities();
+        if (count <= 0) {
+            throw new RuntimeException("count must be positive");
+        }
+        count = Math.min(count, MAX_RANDOM_COUNT);
         
-        // Get user's solved quiz IDs
-        Set<Long> solvedQuizIds = userQuizAttemptRepository.findByUserId(userId).stream()
-            .filter(UserQuizAttempt::isSolved)
-            .map(a -> a.getQuiz().getId())
-            .collect(java.util.stream.Collectors.toSet());
+        // A seed makes the draw reproducible; otherwise use the thread-local generator
+        RandomGenerator random = seed != null ? new SplittableRandom(seed) : ThreadLocalRandom.current();
         
-        // Filter unsolved quizzes
-        List<Quiz> unsolvedQuizzes = allQuizzes.stream()
-            .filter(q -> !solvedQuizIds.contains(q.getId()))
-            .collect(java.util.stream.Collectors.toList());
+        // Sample unsolved ids from the catalog's topic index (all quizzes when no topic is given)
+        QuizCatalog.Snapshot catalog = quizCatalog.snapshot();
+        long[] sampledIds = quizSampler.sample(quizCatalog.idsForTopic(topic), solvedQuizCache.solvedFilter(userId), count, random);
         
-        // Filter by topic if specified
-        if (topic != null && !topic.isEmpty()) {
-            unsolvedQuizzes = unsolvedQuizzes.stream()
-                .filter(q -> topic.equalsIgnoreCase(q.getTopic()))
-                .collect(java.util.stream.Collectors.toList());
+        // Hydrate only the chosen quizzes
+        List<Quiz> selectedQuizzes = new ArrayList<>();
+        for (long id : sampledIds) {
+            Quiz quiz = catalog.get(id);
+            if (quiz != null) {
+                selectedQuizzes.add(quiz);
+            }
         }
         
-        // Shuffle and limit to requested count
-        java.util.Collections.shuffle(unsolvedQuizzes);
-        List<Quiz> selectedQuizzes = unsolvedQuizzes.stream()
-            .limit(count)
-            .collect(java.util.stream.Collectors.toList());
-        
         // Convert to response DTOs
         List<QuizResponse> responses = selectedQuizzes.stream()
             .map(quiz -> QuizResponse.builder()
@@ -253,95 +248,6 @@ public class QuizController {
         Long userId = Long.valueOf(payload.get("userId").toString());
         Long quizId = Long.valueOf(payload.get("quizId").toString());
         String answer = (String) payload.get("answer");
-        Quiz quiz = quizService.getAllQuizEntities().stream()
-            .filter(q -> q.getId().equals(quizId))
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        boolean correct = quiz.getCorrectAnswer().equalsIgnoreCase(answer);
-        int score = correct ? 1 : 0;
-        UserQuizAttempt attempt = userQuizAttemptRepository.findByUserId(userId).stream()
-            .filter(a -> a.getQuiz().getId().equals(quizId)).findFirst().orElse(null);
-        if (attempt == null) {
-            attempt = UserQuizAttempt.builder()
-                .user(com.quizapp.model.User.builder().id(userId).build())
-                .quiz(quiz)
-                .attempted(true)
-                .solved(correct)
-                .score(score)
-                .dateSolved(LocalDateTime.now())
-                .build();
-        } else {
-            attempt.setAttempted(true);
-            attempt.setSolved(correct);
-            attempt.setScore(score);
-            attempt.setDateSolved(LocalDateTime.now());
-        }
-        userQuizAttemptRepository.save(attempt);
-
-        // Update user's totalQuizzesSolved and streak only if answer is correct
-        com.quizapp.model.User user = userRepository.findById(userId).orElse(null);
-        if (user != null && correct) {
-            // Store the attempt ID to use in lambda
-            final Long currentAttemptId = attempt.getId();
-            
-            // Check if user already solved a quiz today BEFORE this attempt
-            java.util.List<UserQuizAttempt> existingSolvedAttempts = userQuizAttemptRepository.findByUserId(userId).stream()
-                .filter(UserQuizAttempt::isSolved)
-                .filter(a -> a.getDateSolved() != null)
-                .filter(a -> !a.getId().equals(currentAttemptId)) // Exclude the current attempt
-                .toList();
-
-            java.util.Set<java.time.LocalDate> existingActiveDays = existingSolvedAttempts.stream()
-                .map(a -> a.getDateSolved().toLocalDate())
-                .collect(java.util.stream.Collectors.toSet());
-
-            java.time.LocalDate today = java.time.LocalDate.now();
-            java.time.LocalDate yesterday = today.minusDays(1);
-
-            // Check if user already solved a quiz today (excluding this attempt)
-            boolean alreadySolvedToday = existingActiveDays.contains(today);
-            
-            long solvedCount = userQuizAttemptRepository.findByUserId(userId).stream()
-                .filter(UserQuizAttempt::isSolved)
-                .count();
-            user.setTotalQuizzesSolved((int) solvedCount);
-
-            // Update days active with the new attempt included
-            java.util.Set<java.time.LocalDate> updatedActiveDays = new java.util.HashSet<>(existingActiveDays);
-            updatedActiveDays.add(today);
-            user.setDaysActive(updatedActiveDays.size());
-
-            if (!alreadySolvedToday) {
-                // This is the first solve today, so update streak
-                java.time.LocalDate lastActiveDay = existingSolvedAttempts.stream()
-                    .map(a -> a.getDateSolved().toLocalDate())
-                    .filter(d -> d.isBefore(today))
-                    .max(java.time.LocalDate::compareTo)
-                    .orElse(null);
-
-                Integer currentStreak = user.getCurrentStreak();
-                if (currentStreak == null) {
-                    currentStreak = 0;
-                }
-
-                if (lastActiveDay != null && lastActiveDay.equals(yesterday)) {
-                    // Consecutive day - increment streak
-                    user.setCurrentStreak(currentStreak + 1);
-                } else if (lastActiveDay == null || lastActiveDay.isBefore(yesterday)) {
-                    // Gap in streak - reset to 1
-                    user.setCurrentStreak(1);
-                }
-            }
-
-            userRepository.save(user);
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("correct", correct);
-        // Only return explanation if answer is correct
-        if (correct) {
-            result.put("explanation", quiz.getExplanation());
-        }
-        return result;
+        return quizService.solveQuiz(userId, quizId, answer);
     }
 } 
\ No newline at end of file
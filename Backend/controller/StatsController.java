@@ -1,8 +1,7 @@
 package com.quizapp.controller;
 
-import com.quizapp.repository.QuizRepository;
-import com.quizapp.repository.UserQuizAttemptRepository;
-import com.quizapp.model.UserQuizAttempt;
+import com.quizapp.service.QuizCatalog;
+import com.quizapp.service.SolvedQuizCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
@@ -12,28 +11,23 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/stats")
 public class StatsController {
     @Autowired
-    private QuizRepository quizRepository;
+    private QuizCatalog quizCatalog;
     @Autowired
-    private UserQuizAttemptRepository userQuizAttemptRepository;
+    private SolvedQuizCache solvedQuizCache;
 
     @GetMapping("/home")
     public Map<String, Object> getHomeStats(@RequestParam Long userId) {
         Map<String, Object> stats = new HashMap<>();
         // Total quizzes
-        long totalQuizzes = quizRepository.count();
+        long totalQuizzes = quizCatalog.size();
         stats.put("totalQuizzes", totalQuizzes);
 
         // Solved quizzes by user
-        long solved = userQuizAttemptRepository.findByUserId(userId)
-            .stream().filter(UserQuizAttempt::isSolved).count();
+        long solved = solvedQuizCache.solvedCount(userId);
         stats.put("solved", solved);
 
         // Distinct topics
-        List<String> topics = quizRepository.findAll().stream()
-            .map(quiz -> quiz.getTopic())
-            .filter(Objects::nonNull)
-            .distinct()
-            .collect(Collectors.toList());
+        List<String> topics = quizCatalog.topics();
         stats.put("topics", topics);
         stats.put("topicsCount", topics.size());
 
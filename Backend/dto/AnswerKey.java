@@ -0,0 +1,13 @@
+package com.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AnswerKey {
+    private Long quizId;
+    private String correctAnswer;
+    private String explanation;
+    private String topic;
+}
@@ -13,4 +13,5 @@ public class LeaderboardResponse {
     private String userName;
     private int score;
     private String college;
+    private Integer rank;
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardWindowResponse {
+    private String scope;
+    private Integer userRank;
+    private int totalRanked;
+    private List<LeaderboardResponse> entries;
+}
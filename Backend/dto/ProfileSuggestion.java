@@ -0,0 +1,12 @@
+package com.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProfileSuggestion {
+    private Long userId;
+    private String name;
+    private String college;
+}
@@ -0,0 +1,13 @@
+package com.quizapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class QuizListPage {
+    private List<Map<String, Object>> items;
+    private String nextCursor; // null when there are no more quizzes
+}
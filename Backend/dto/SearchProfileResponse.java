@@ -13,6 +13,8 @@ public class SearchProfileResponse {
     private Integer totalQuizzesSolved;
     private Integer currentStreak;
     private String profilePicture;
+    // Small square variant for lists; the original until its thumbnails are rendered
+    private String profilePictureThumbnail;
     private Double averageScore;
     private String rank;
     private boolean isPublic;
@@ -0,0 +1,8 @@
+package com.quizapp.event;
+
+/**
+ * Published when something shown on a user's profile changed that UserChangedEvent and UserScoreChangedEvent
+ * do not cover, such as attempt stats, the picture or the last login.
+ */
+public record ProfileChangedEvent(Long userId) {
+}
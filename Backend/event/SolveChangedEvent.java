@@ -0,0 +1,11 @@
+package com.quizapp.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an attempt row becomes solved (delta 1, on the day of the solve) or stops being solved
+ * (delta -1, on the day it was originally solved). Re-solving an already solved quiz publishes nothing,
+ * so the events replay exactly what the solved rows and their dateSolved hold.
+ */
+public record SolveChangedEvent(Long userId, LocalDate solvedOn, int delta) {
+}
@@ -0,0 +1,19 @@
+package com.quizapp.event;
+
+import com.quizapp.model.User;
+
+/**
+ * Published when a user is created, changes college or is deleted. Score is the user's totalQuizzesSolved
+ * at the time of the change and is only used for users a listener has not seen yet.
+ */
+public record UserChangedEvent(Long userId, String college, int score, boolean deleted) {
+
+    public static UserChangedEvent saved(User user) {
+        int score = user.getTotalQuizzesSolved() != null ? user.getTotalQuizzesSolved() : 0;
+        return new UserChangedEvent(user.getId(), user.getCollege(), score, false);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(userId, null, 0, true);
+    }
+}
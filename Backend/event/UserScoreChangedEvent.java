@@ -0,0 +1,8 @@
+package com.quizapp.event;
+
+/**
+ * Published when a user's totalQuizzesSolved changes by delta. Listeners that keep derived rankings
+ * should handle it after the publishing transaction commits.
+ */
+public record UserScoreChangedEvent(Long userId, int delta) {
+}
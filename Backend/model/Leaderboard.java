@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "leaderboards")
+@Table(
+    name = "leaderboards",
+    uniqueConstraints = @UniqueConstraint(name = "uk_leaderboards_date_user", columnNames = {"date", "user_id"})
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
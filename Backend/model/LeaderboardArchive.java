@@ -0,0 +1,38 @@
+package com.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * One closed day of leaderboard rows for one college, packed into two arrays:
+ * user ids sorted ascending and delta/varint encoded, and the matching scores varint encoded.
+ */
+@Entity
+@Table(name = "leaderboard_archives", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_leaderboard_archives_date_college", columnNames = {"date", "college"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDate date;
+
+    // Empty string for users without a college
+    private String college;
+
+    @Column(name = "entry_count")
+    private int entryCount;
+
+    @Lob
+    @Column(name = "user_ids")
+    private byte[] userIds;
+
+    @Lob
+    private byte[] scores;
+}
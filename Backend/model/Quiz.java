@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", indexes = {
+    @Index(name = "idx_quizzes_topic_level", columnList = "topic, knowledge_level, id"),
+    @Index(name = "idx_quizzes_level", columnList = "knowledge_level, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,5 +31,6 @@ public class Quiz {
     }
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "knowledge_level")
     private KnowledgeLevel knowledgeLevel;
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.quizapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -59,6 +60,13 @@ public class User {
     @Column(name = "days_active")
     private Integer daysActive = 0;
 
+    @Column(name = "last_active_date")
+    private LocalDate lastActiveDate;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
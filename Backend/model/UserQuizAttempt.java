@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "user_quiz_attempts")
+@Table(name = "user_quiz_attempts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_attempts_user_quiz", columnNames = {"user_id", "quiz_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
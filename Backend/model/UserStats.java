@@ -0,0 +1,27 @@
+package com.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user totals over attempted rows of user_quiz_attempts, kept in step with every graded answer
+ * so profile reads do not scan the attempt history.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private int attempted;
+
+    private int solved;
+
+    @Column(name = "score_sum")
+    private long scoreSum;
+}
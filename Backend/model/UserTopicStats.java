@@ -0,0 +1,34 @@
+package com.quizapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user, per-topic breakdown of UserStats.
+ */
+@Entity
+@Table(name = "user_topic_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_topic_stats_user_topic", columnNames = {"user_id", "topic"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTopicStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Empty string for quizzes without a topic
+    private String topic;
+
+    private int attempted;
+
+    private int solved;
+
+    @Column(name = "score_sum")
+    private long scoreSum;
+}
@@ -1,12 +1,18 @@
 package com.quizapp.repository;
 
 import com.quizapp.model.Classroom;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
 public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
+    @EntityGraph(attributePaths = "teacher")
     List<Classroom> findByTeacherId(Long teacherId);
+    @EntityGraph(attributePaths = "teacher")
     Optional<Classroom> findByJoinLink(String joinLink);
     List<Classroom> findByIsActiveTrue();
-} 
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "teacher")
+    Optional<Classroom> findWithTeacherById(Long id);
+}
\ No newline at end of file
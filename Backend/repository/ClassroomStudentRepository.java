@@ -1,7 +1,11 @@
 package com.quizapp.repository;
 
 import com.quizapp.model.ClassroomStudent;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,18 @@ public interface ClassroomStudentRepository extends JpaRepository<ClassroomStude
     List<ClassroomStudent> findByStudentId(Long studentId);
     Optional<ClassroomStudent> findByClassroomIdAndStudentId(Long classroomId, Long studentId);
     List<ClassroomStudent> findByClassroomIdAndStatus(Long classroomId, ClassroomStudent.Status status);
-} 
\ No newline at end of file
+    boolean existsByClassroomIdAndStudentId(Long classroomId, Long studentId);
+    long countByClassroomId(Long classroomId);
+
+    // Members with their student loaded in the same select, for attendance, leaderboard and detail views
+    @EntityGraph(attributePaths = "student")
+    List<ClassroomStudent> findWithStudentByClassroomId(Long classroomId);
+
+    // Memberships with classroom and teacher loaded in the same select, for a student's classroom list
+    @EntityGraph(attributePaths = {"classroom", "classroom.teacher"})
+    List<ClassroomStudent> findWithClassroomByStudentId(Long studentId);
+
+    // (classroomId, member count) for the given classrooms; classrooms without members are absent
+    @Query("SELECT cs.classroom.id, COUNT(cs) FROM ClassroomStudent cs WHERE cs.classroom.id IN :classroomIds GROUP BY cs.classroom.id")
+    List<Object[]> countByClassroomIdIn(@Param("classroomIds") Collection<Long> classroomIds);
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.quizapp.repository;
+
+import com.quizapp.model.LeaderboardArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LeaderboardArchiveRepository extends JpaRepository<LeaderboardArchive, Long> {
+    List<LeaderboardArchive> findByDate(LocalDate date);
+    Optional<LeaderboardArchive> findByDateAndCollege(LocalDate date, String college);
+}
@@ -2,10 +2,33 @@ package com.quizapp.repository;
 
 import com.quizapp.model.Leaderboard;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface LeaderboardRepository extends JpaRepository<Leaderboard, Long> {
     List<Leaderboard> findByDate(LocalDate date);
     List<Leaderboard> findByCollege(String college);
+    Optional<Leaderboard> findByDateAndUserId(LocalDate date, Long userId);
+    List<Leaderboard> findByDateAndUserIdIn(LocalDate date, Collection<Long> userIds);
+
+    // Atomic in-place increment of one user's row for the day; returns 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE Leaderboard l SET l.score = l.score + :delta WHERE l.date = :date AND l.user.id = :userId")
+    int addScore(@Param("date") LocalDate date, @Param("userId") Long userId, @Param("delta") int delta);
+
+    @Query("SELECT DISTINCT l.date FROM Leaderboard l WHERE l.date < :before ORDER BY l.date")
+    List<LocalDate> findDatesBefore(@Param("before") LocalDate before);
+
+    // (userId, score, college) for every row of the day
+    @Query("SELECT l.user.id, l.score, l.college FROM Leaderboard l WHERE l.date = :date")
+    List<Object[]> findEntriesByDate(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM Leaderboard l WHERE l.date = :date")
+    int deleteByDate(@Param("date") LocalDate date);
 } 
\ No newline at end of file
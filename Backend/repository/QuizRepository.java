@@ -1,10 +1,28 @@
 package com.quizapp.repository;
 
+import com.quizapp.dto.AnswerKey;
 import com.quizapp.model.Quiz;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
     List<Quiz> findByTopic(String topic);
-} 
\ No newline at end of file
+
+    @Query("SELECT new com.quizapp.dto.AnswerKey(q.id, q.correctAnswer, q.explanation, q.topic) FROM Quiz q WHERE q.id = :id")
+    Optional<AnswerKey> findAnswerKeyById(@Param("id") Long id);
+
+    @Query("SELECT new com.quizapp.dto.AnswerKey(q.id, q.correctAnswer, q.explanation, q.topic) FROM Quiz q WHERE q.id IN :ids")
+    List<AnswerKey> findAnswerKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages for /api/quiz/list, one per filter combination so each hits its index
+    List<Quiz> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    List<Quiz> findByTopicAndIdGreaterThanOrderByIdAsc(String topic, Long afterId, Pageable pageable);
+    List<Quiz> findByKnowledgeLevelAndIdGreaterThanOrderByIdAsc(Quiz.KnowledgeLevel knowledgeLevel, Long afterId, Pageable pageable);
+    List<Quiz> findByTopicAndKnowledgeLevelAndIdGreaterThanOrderByIdAsc(String topic, Quiz.KnowledgeLevel knowledgeLevel, Long afterId, Pageable pageable);
+}
@@ -1,10 +1,49 @@
 package com.quizapp.repository;
 
 import com.quizapp.model.UserQuizAttempt;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserQuizAttemptRepository extends JpaRepository<UserQuizAttempt, Long> {
     List<UserQuizAttempt> findByUserId(Long userId);
+
+    // Solved attempts with their quiz loaded in the same select, for /api/quiz/solved
+    @EntityGraph(attributePaths = "quiz")
+    List<UserQuizAttempt> findWithQuizByUserIdAndSolvedTrue(Long userId);
+
     boolean existsByUserIdAndQuizId(Long userId, Long quizId);
-} 
\ No newline at end of file
+    Optional<UserQuizAttempt> findByUserIdAndQuizId(Long userId, Long quizId);
+    long countByUserIdAndSolvedTrue(Long userId);
+
+    // (quizId, solved) pairs without hydrating attempts or quizzes
+    @Query("SELECT a.quiz.id, a.solved FROM UserQuizAttempt a WHERE a.user.id = :userId")
+    List<Object[]> findQuizStatusByUserId(@Param("userId") Long userId);
+
+    // (attemptId, quizId, solved, attempted, score, dateSolved) for the given quizzes
+    @Query("SELECT a.id, a.quiz.id, a.solved, a.attempted, a.score, a.dateSolved FROM UserQuizAttempt a WHERE a.user.id = :userId AND a.quiz.id IN :quizIds")
+    List<Object[]> findAttemptStatusByUserIdAndQuizIdIn(@Param("userId") Long userId, @Param("quizIds") Collection<Long> quizIds);
+
+    @Query("SELECT a.dateSolved FROM UserQuizAttempt a WHERE a.user.id = :userId AND a.solved = true AND a.dateSolved IS NOT NULL")
+    List<LocalDateTime> findSolvedDatesByUserId(@Param("userId") Long userId);
+
+    // (userId, attempted count, solved count, score sum) for the given users, one row per user with at least one attempt;
+    // UserStatsService seeds and verifies user_stats from every column, scoreSum included
+    @Query("SELECT a.user.id, COUNT(a), SUM(CASE WHEN a.solved = true THEN 1 ELSE 0 END), COALESCE(SUM(a.score), 0) " +
+           "FROM UserQuizAttempt a WHERE a.user.id IN :userIds AND a.attempted = true GROUP BY a.user.id")
+    List<Object[]> findAttemptTotalsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // (userId, topic, attempted count, solved count, score sum) for the given users, one row per user and topic
+    @Query("SELECT a.user.id, q.topic, COUNT(a), SUM(CASE WHEN a.solved = true THEN 1 ELSE 0 END), COALESCE(SUM(a.score), 0) " +
+           "FROM UserQuizAttempt a JOIN a.quiz q WHERE a.user.id IN :userIds AND a.attempted = true GROUP BY a.user.id, q.topic")
+    List<Object[]> findTopicTotalsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // (userId, dateSolved) for every solved attempt since the given time
+    @Query("SELECT a.user.id, a.dateSolved FROM UserQuizAttempt a WHERE a.solved = true AND a.dateSolved >= :since")
+    List<Object[]> findSolvedSince(@Param("since") LocalDateTime since);
+}
@@ -2,7 +2,12 @@ package com.quizapp.repository;
 
 import com.quizapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +15,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
     List<User> findByCollege(String college);
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
+
+    // (userId, totalQuizzesSolved, college) for every user
+    @Query("SELECT u.id, u.totalQuizzesSolved, u.college FROM User u")
+    List<Object[]> findAllScores();
+
+    // (userId, name, email, college, role) for the profile search index
+    @Query("SELECT u.id, u.name, u.email, u.college, u.role FROM User u")
+    List<Object[]> findSearchFields();
+
+    // (userId, name, college, totalQuizzesSolved) of every student for the profile suggest index
+    @Query("SELECT u.id, u.name, u.college, u.totalQuizzesSolved FROM User u WHERE u.role = com.quizapp.model.User.Role.STUDENT")
+    List<Object[]> findSuggestFields();
+
+    // (userId, link) for every link of the given users, so a page of profiles needs one query for links
+    @Query("SELECT u.id, l FROM User u JOIN u.links l WHERE u.id IN :userIds")
+    List<Object[]> findLinksByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT DISTINCT u.profilePicture FROM User u WHERE u.profilePicture IS NOT NULL")
+    List<String> findProfilePictures();
+
+    // Keyed write of the login time that leaves the version alone, so logins never conflict with solves
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :userId")
+    int updateLastLogin(@Param("userId") Long userId, @Param("lastLogin") LocalDateTime lastLogin);
+
+    @Query("SELECT u.id FROM User u WHERE u.lastLogin > :since")
+    List<Long> findIdsByLastLoginAfter(@Param("since") LocalDateTime since);
 } 
\ No newline at end of file
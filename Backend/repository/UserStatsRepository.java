@@ -0,0 +1,16 @@
+package com.quizapp.repository;
+
+import com.quizapp.model.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+    // Atomic in-place increment of one user's totals; returns 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE UserStats s SET s.attempted = s.attempted + :attempted, s.solved = s.solved + :solved, " +
+           "s.scoreSum = s.scoreSum + :score WHERE s.userId = :userId")
+    int addDeltas(@Param("userId") Long userId, @Param("attempted") int attempted,
+                  @Param("solved") int solved, @Param("score") long score);
+}
@@ -0,0 +1,25 @@
+package com.quizapp.repository;
+
+import com.quizapp.model.UserTopicStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserTopicStatsRepository extends JpaRepository<UserTopicStats, Long> {
+    List<UserTopicStats> findByUserIdIn(Collection<Long> userIds);
+
+    // Atomic in-place increment of one (user, topic) row; returns 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE UserTopicStats s SET s.attempted = s.attempted + :attempted, s.solved = s.solved + :solved, " +
+           "s.scoreSum = s.scoreSum + :score WHERE s.userId = :userId AND s.topic = :topic")
+    int addDeltas(@Param("userId") Long userId, @Param("topic") String topic, @Param("attempted") int attempted,
+                  @Param("solved") int solved, @Param("score") long score);
+
+    @Modifying
+    @Query("DELETE FROM UserTopicStats s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
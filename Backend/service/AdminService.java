@@ -3,6 +3,7 @@ package com.quizapp.service;
 import com.quizapp.dto.AdminAnalyticsResponse;
 import com.quizapp.dto.UserManagementRequest;
 import com.quizapp.dto.CollegeManagementRequest;
+import com.quizapp.event.UserChangedEvent;
 import com.quizapp.model.User;
 import com.quizapp.model.UserQuizAttempt;
 import com.quizapp.model.Classroom;
@@ -11,8 +12,11 @@ import com.quizapp.repository.UserQuizAttemptRepository;
 import com.quizapp.repository.ClassroomRepository;
 import com.quizapp.repository.QuizRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -21,11 +25,17 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class AdminService {
+    private static final int MAX_SAVE_RETRIES = 3;
+
     private final UserRepository userRepository;
     private final UserQuizAttemptRepository userQuizAttemptRepository;
     private final ClassroomRepository classroomRepository;
     private final QuizRepository quizRepository;
     private final PasswordEncoder passwordEncoder;
+    private final QuizCatalog quizCatalog;
+    private final SolvedQuizCache solvedQuizCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public AdminAnalyticsResponse getAnalytics() {
         long totalUsers = userRepository.count();
@@ -75,7 +85,7 @@ public class AdminService {
                 .collect(Collectors.toList());
 
         // Quizzes by category
-        Map<String, Long> quizzesByCategory = quizRepository.findAll().stream()
+        Map<String, Long> quizzesByCategory = quizCatalog.all().stream()
                 .collect(Collectors.groupingBy(quiz -> quiz.getTopic(), Collectors.counting()));
 
         // Average score
@@ -109,27 +119,45 @@ public class AdminService {
                 .emailVerified(true)
                 .build();
 
-        return userRepository.save(user);
+        user = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(user));
+        return user;
     }
 
     public User updateUser(Long userId, UserManagementRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setName(request.getName());
-        user.setEmail(request.getEmail());
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+        String password = request.getPassword() != null && !request.getPassword().isEmpty()
+                ? passwordEncoder.encode(request.getPassword())
+                : null;
+        // Re-read and re-apply when a concurrent solve bumped the user's version
+        for (int retry = 1; ; retry++) {
+            try {
+                User user = transactionTemplate.execute(status -> {
+                    User current = userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+                    current.setName(request.getName());
+                    current.setEmail(request.getEmail());
+                    if (password != null) {
+                        current.setPassword(password);
+                    }
+                    current.setRole(User.Role.valueOf(request.getRole().toUpperCase()));
+                    current.setCollege(request.getCollege());
+                    current.setMobileNumber(request.getMobileNumber());
+                    return userRepository.save(current);
+                });
+                eventPublisher.publishEvent(UserChangedEvent.saved(user));
+                return user;
+            } catch (OptimisticLockingFailureException e) {
+                if (retry >= MAX_SAVE_RETRIES) {
+                    throw e;
+                }
+            }
         }
-        user.setRole(User.Role.valueOf(request.getRole().toUpperCase()));
-        user.setCollege(request.getCollege());
-        user.setMobileNumber(request.getMobileNumber());
-
-        return userRepository.save(user);
     }
 
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        solvedQuizCache.evict(userId);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userId));
     }
 
     public List<User> getAllUsers() {
@@ -0,0 +1,102 @@
+package com.quizapp.service;
+
+import com.quizapp.dto.AnswerKey;
+import com.quizapp.repository.QuizRepository;
+import com.quizapp.utils.LongObjectMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answer keys for grading, keyed by primitive quiz id and kept apart from the Quiz entity graph.
+ * Keys are loaded on first use with a single projection read and dropped when the quiz is updated or deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnswerKeyStore {
+    private final QuizRepository quizRepository;
+    private final LongObjectMap<AnswerKey> keys = new LongObjectMap<>(1024);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Bumped on every invalidation so a load that raced with an update is not cached
+    private long generation;
+
+    public AnswerKey get(long quizId) {
+        long loadGeneration;
+        lock.readLock().lock();
+        try {
+            AnswerKey key = keys.get(quizId);
+            if (key != null) {
+                return key;
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        AnswerKey loaded = quizRepository.findAnswerKeyById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        lock.writeLock().lock();
+        try {
+            if (generation == loadGeneration) {
+                keys.put(quizId, loaded);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded;
+    }
+
+    /**
+     * Answer keys for all the given ids that exist. Missing keys are fetched together in one read.
+     */
+    public Map<Long, AnswerKey> getAll(Collection<Long> quizIds) {
+        Map<Long, AnswerKey> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long loadGeneration;
+        lock.readLock().lock();
+        try {
+            for (Long quizId : quizIds) {
+                AnswerKey key = keys.get(quizId);
+                if (key != null) {
+                    result.put(quizId, key);
+                } else {
+                    missing.add(quizId);
+                }
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        List<AnswerKey> loaded = quizRepository.findAnswerKeysByIdIn(missing);
+        lock.writeLock().lock();
+        try {
+            for (AnswerKey key : loaded) {
+                result.put(key.getQuizId(), key);
+                if (generation == loadGeneration) {
+                    keys.put(key.getQuizId(), key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    public void invalidate(long quizId) {
+        lock.writeLock().lock();
+        try {
+            keys.remove(quizId);
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
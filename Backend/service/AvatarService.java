@@ -0,0 +1,209 @@
+package com.quizapp.service;
+
+import com.quizapp.utils.BoundedCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Serves stored profile pictures. Content-addressed files get a strong ETag from their name and a year-long
+ * immutable Cache-Control, so browsers revalidate rarely and a revalidation is a 304. Single byte ranges are honored.
+ * Large bodies go out through Tomcat's sendfile when the connector supports it, otherwise through
+ * FileChannel.transferTo; small thumbnails, which fill leaderboard and search pages, are served from an in-memory LRU.
+ */
+@Component
+public class AvatarService {
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // Files saved under the old timestamped names are not content-addressed and may be deleted
+    private static final String REVALIDATE = "public, max-age=3600";
+    private static final int MAX_CACHED_BYTES = 64 * 1024;
+    // Tomcat's default sendfile threshold; smaller bodies are cheaper to copy
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ProfilePictureStore profilePictureStore;
+    private final BoundedCache<String, byte[]> hotBytes;
+
+    public AvatarService(ProfilePictureStore profilePictureStore,
+                         @Value("${app.uploads.avatar-cache-entries:2048}") int cacheEntries,
+                         @Value("${app.uploads.avatar-cache-bytes:33554432}") long cacheBytes) {
+        this.profilePictureStore = profilePictureStore;
+        this.hotBytes = new BoundedCache<>(cacheEntries, cacheBytes, bytes -> bytes.length);
+    }
+
+    public void serve(String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = profilePictureStore.resolve(name);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        boolean immutable = ProfilePictureStore.isContentAddressed(name);
+        long length = Files.size(file);
+        String etag = immutable
+            ? "\"" + name.substring(0, name.lastIndexOf('.')) + "\""
+            : "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range only matches a strong validator, so partial reads of legacy files restart from scratch
+        if (range != null && (ifRange == null || (immutable && ifRange.equals(etag)))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentType(contentType(name));
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (immutable && length <= MAX_CACHED_BYTES) {
+            byte[] bytes = hotBytes.get(name);
+            if (bytes == null) {
+                bytes = Files.readAllBytes(file);
+                hotBytes.put(name, bytes);
+            }
+            response.getOutputStream().write(bytes, (int) start, (int) count);
+            return;
+        }
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    public BoundedCache.Stats cacheStats() {
+        return hotBytes.stats();
+    }
+
+    // "*" or any listed tag, compared weakly as If-None-Match requires
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Bounds of a single "bytes=" range: {start, end} inclusive, an empty array to serve the whole file
+     * (malformed or multi-range headers), or null when the range is unsatisfiable.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (!last.isEmpty() && Long.parseLong(last) < start) {
+                    return new long[0];
+                }
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static String contentType(String name) {
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        switch (extension) {
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "png":
+                return "image/png";
+            case "gif":
+                return "image/gif";
+            case "bmp":
+                return "image/bmp";
+            case "webp":
+                return "image/webp";
+            default:
+                return "application/octet-stream";
+        }
+    }
+}
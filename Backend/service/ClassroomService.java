@@ -14,7 +14,9 @@ import com.quizapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -131,7 +133,7 @@ public class ClassroomService {
      * Returns attendance list of a classroom.
      */
     public List<ClassroomAttendanceResponse> getClassroomAttendance(Long classroomId) {
-        List<ClassroomStudent> students = classroomStudentRepository.findByClassroomId(classroomId);
+        List<ClassroomStudent> students = classroomStudentRepository.findWithStudentByClassroomId(classroomId);
         return students.stream()
                 .map(this::toAttendanceResponse)
                 .collect(Collectors.toList());
@@ -141,7 +143,7 @@ public class ClassroomService {
      * Returns leaderboard for a classroom.
      */
     public List<ClassroomLeaderboardResponse> getClassroomLeaderboard(Long classroomId) {
-        List<ClassroomStudent> students = classroomStudentRepository.findByClassroomId(classroomId);
+        List<ClassroomStudent> students = classroomStudentRepository.findWithStudentByClassroomId(classroomId);
         return students.stream()
                 .map(cs -> new ClassroomLeaderboardResponse(
                         cs.getStudent().getName(),
@@ -155,39 +157,36 @@ public class ClassroomService {
      * Returns classrooms created by a teacher.
      */
     public List<ClassroomResponse> getTeacherClassrooms(Long teacherId) {
-        return classroomRepository.findByTeacherId(teacherId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(classroomRepository.findByTeacherId(teacherId));
     }
 
     /**
      * Returns classrooms joined by a student.
      */
     public List<ClassroomResponse> getStudentClassrooms(Long studentId) {
-        List<ClassroomStudent> classroomStudents = classroomStudentRepository.findByStudentId(studentId);
-        return classroomStudents.stream()
-                .map(cs -> toResponse(cs.getClassroom()))
-                .collect(Collectors.toList());
+        List<ClassroomStudent> classroomStudents = classroomStudentRepository.findWithClassroomByStudentId(studentId);
+        return toResponses(classroomStudents.stream()
+                .map(ClassroomStudent::getClassroom)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Returns a single classroom by ID with authorization check.
      */
     public ClassroomResponse getClassroomById(Long classroomId, User user) {
-        Classroom classroom = classroomRepository.findById(classroomId)
+        Classroom classroom = classroomRepository.findWithTeacherById(classroomId)
                 .orElseThrow(() -> new RuntimeException("Classroom not found with ID: " + classroomId));
 
         // Check if user is the teacher or a student in this classroom
         boolean isTeacher = classroom.getTeacher().getId().equals(user.getId());
-        boolean isStudent = classroomStudentRepository.findByClassroomIdAndStudentId(classroomId, user.getId()).isPresent();
+        boolean isStudent = classroomStudentRepository.existsByClassroomIdAndStudentId(classroomId, user.getId());
 
         if (!isTeacher && !isStudent) {
             throw new RuntimeException("Access denied: User is not authorized to view this classroom");
         }
 
         // Get students for this classroom
-        List<ClassroomStudent> students = classroomStudentRepository.findByClassroomId(classroomId);
+        List<ClassroomStudent> students = classroomStudentRepository.findWithStudentByClassroomId(classroomId);
         
         return ClassroomResponse.builder()
                 .id(classroom.getId())
@@ -215,7 +214,27 @@ public class ClassroomService {
      * Helper to map Classroom to ClassroomResponse DTO.
      */
     private ClassroomResponse toResponse(Classroom classroom) {
-        int studentCount = classroomStudentRepository.findByClassroomId(classroom.getId()).size();
+        return toResponse(classroom, (int) classroomStudentRepository.countByClassroomId(classroom.getId()));
+    }
+
+    /**
+     * Maps a list of classrooms with all member counts fetched in one grouped query.
+     */
+    private List<ClassroomResponse> toResponses(List<Classroom> classrooms) {
+        if (classrooms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        List<Long> classroomIds = classrooms.stream().map(Classroom::getId).collect(Collectors.toList());
+        for (Object[] row : classroomStudentRepository.countByClassroomIdIn(classroomIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return classrooms.stream()
+                .map(classroom -> toResponse(classroom, counts.getOrDefault(classroom.getId(), 0L).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private ClassroomResponse toResponse(Classroom classroom, int studentCount) {
         return ClassroomResponse.builder()
                 .id(classroom.getId())
                 .title(classroom.getTitle())
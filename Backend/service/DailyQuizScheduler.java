@@ -0,0 +1,143 @@
+package com.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizapp.model.Quiz;
+import com.quizapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Assigns each user one quiz per day and serves it as pre-serialized JSON.
+ * The pick is a hash of (userId, date) probed over the catalog until it lands on a quiz the user has not attempted,
+ * so it is stable for the whole day and spread across the bank. Assignments for tomorrow are precomputed before
+ * midnight for recently active users, and concurrent first requests for the same user share a single computation.
+ * A cached assignment remembers the catalog entry it was rendered from; once that quiz is edited or deleted the
+ * entry no longer matches and the assignment is recomputed on the next request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyQuizScheduler {
+    private static final int ACTIVE_USER_DAYS = 14;
+
+    private final QuizCatalog quizCatalog;
+    private final SolvedQuizCache solvedQuizCache;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<LocalDate, ConcurrentHashMap<Long, CompletableFuture<DailyAssignment>>> assignments = new ConcurrentHashMap<>();
+
+    /**
+     * Returns today's quiz for the user as JSON bytes.
+     */
+    public byte[] getDailyQuizJson(Long userId) {
+        LocalDate today = LocalDate.now();
+        ConcurrentHashMap<Long, CompletableFuture<DailyAssignment>> day = assignments.computeIfAbsent(today, d -> new ConcurrentHashMap<>());
+        DailyAssignment assignment = await(day, userId, today, false);
+        if (quizCatalog.snapshot().get(assignment.quizId()) != assignment.quiz()) {
+            // Edited or deleted since it was rendered; an edited quiz keeps its slot, a deleted one is replaced
+            day.remove(userId, day.get(userId));
+            assignment = await(day, userId, today, assignment.precomputed());
+        }
+        if (assignment.precomputed()) {
+            // First request for a batch pick: it may have been attempted between the batch run and midnight
+            CompletableFuture<DailyAssignment> current = day.get(userId);
+            if (solvedQuizCache.isAttempted(userId, assignment.quizId())) {
+                day.remove(userId, current);
+                assignment = await(day, userId, today, false);
+            } else if (current != null) {
+                day.replace(userId, current, CompletableFuture.completedFuture(assignment.checked()));
+            }
+        }
+        return assignment.json();
+    }
+
+    /**
+     * Precomputes tomorrow's assignments for users active in the last two weeks and drops past days.
+     */
+    @Scheduled(cron = "${app.daily-quiz.precompute-cron:0 30 23 * * *}")
+    public void precomputeTomorrow() {
+        LocalDate today = LocalDate.now();
+        LocalDate tomorrow = today.plusDays(1);
+        assignments.keySet().removeIf(date -> date.isBefore(today));
+
+        ConcurrentHashMap<Long, CompletableFuture<DailyAssignment>> day = assignments.computeIfAbsent(tomorrow, d -> new ConcurrentHashMap<>());
+        List<Long> userIds = userRepository.findIdsByLastLoginAfter(LocalDateTime.now().minusDays(ACTIVE_USER_DAYS));
+        int assigned = 0;
+        for (Long userId : userIds) {
+            try {
+                await(day, userId, tomorrow, true);
+                assigned++;
+            } catch (RuntimeException e) {
+                // No unattempted quiz left for this user; the request path reports it
+            }
+        }
+        log.info("Precomputed {} daily quizzes for {}", assigned, tomorrow);
+    }
+
+    private DailyAssignment await(ConcurrentHashMap<Long, CompletableFuture<DailyAssignment>> day, Long userId, LocalDate date, boolean precomputed) {
+        CompletableFuture<DailyAssignment> created = new CompletableFuture<>();
+        CompletableFuture<DailyAssignment> existing = day.putIfAbsent(userId, created);
+        if (existing == null) {
+            try {
+                created.complete(assign(userId, date, precomputed));
+            } catch (RuntimeException e) {
+                day.remove(userId, created);
+                created.completeExceptionally(e);
+            }
+            existing = created;
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private DailyAssignment assign(Long userId, LocalDate date, boolean precomputed) {
+        QuizCatalog.Snapshot catalog = quizCatalog.snapshot();
+        long[] ids = catalog.allIds();
+        LongPredicate attempted = solvedQuizCache.attemptedFilter(userId);
+        int start = (int) Math.floorMod(mix(userId, date.toEpochDay()), (long) Math.max(ids.length, 1));
+        for (int i = 0; i < ids.length; i++) {
+            long id = ids[(start + i) % ids.length];
+            if (!attempted.test(id)) {
+                Quiz quiz = catalog.get(id);
+                try {
+                    return new DailyAssignment(id, quiz, objectMapper.writeValueAsBytes(QuizService.toResponse(quiz)), precomputed);
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Failed to serialize daily quiz", e);
+                }
+            }
+        }
+        throw new RuntimeException("No new quizzes available");
+    }
+
+    // SplitMix64 finalizer over the (userId, day) pair
+    private static long mix(long userId, long epochDay) {
+        long z = userId * 0x9E3779B97F4A7C15L + epochDay;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record DailyAssignment(long quizId, Quiz quiz, byte[] json, boolean precomputed) {
+        DailyAssignment checked() {
+            return new DailyAssignment(quizId, quiz, json, false);
+        }
+    }
+}
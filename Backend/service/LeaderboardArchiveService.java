@@ -0,0 +1,146 @@
+package com.quizapp.service;
+
+import com.quizapp.dto.LeaderboardResponse;
+import com.quizapp.model.LeaderboardArchive;
+import com.quizapp.model.User;
+import com.quizapp.repository.LeaderboardArchiveRepository;
+import com.quizapp.repository.LeaderboardRepository;
+import com.quizapp.repository.UserRepository;
+import com.quizapp.utils.PackedInts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Moves closed days out of the leaderboards table into leaderboard_archives, one packed row per (date, college),
+ * and reads historical standings back by decoding only the requested day.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardArchiveService {
+    private static final String NO_COLLEGE = "";
+    private static final int MAX_STANDINGS = 1000;
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final LeaderboardArchiveRepository leaderboardArchiveRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${app.leaderboard.archive-cron:0 15 0 * * *}")
+    public void archiveNightly() {
+        archiveClosedDays();
+    }
+
+    /**
+     * Archives and prunes every day before today. Each day is archived in its own transaction,
+     * so a failure leaves that day in the hot table for the next run. Returns the number of rows moved.
+     */
+    public int archiveClosedDays() {
+        int moved = 0;
+        for (LocalDate date : leaderboardRepository.findDatesBefore(LocalDate.now())) {
+            Integer rows = transactionTemplate.execute(status -> archiveDay(date));
+            moved += rows != null ? rows : 0;
+        }
+        log.info("Archived {} leaderboard rows", moved);
+        return moved;
+    }
+
+    /**
+     * Standings for one day, highest score first, optionally for one college. Days that are not archived yet
+     * are read from the hot table.
+     */
+    public List<LeaderboardResponse> getStandings(LocalDate date, String college, int limit) {
+        Map<Long, Integer> scores = new HashMap<>();
+        Map<Long, String> colleges = new HashMap<>();
+        List<LeaderboardArchive> archives = college != null
+            ? leaderboardArchiveRepository.findByDateAndCollege(date, college).map(List::of).orElse(List.of())
+            : leaderboardArchiveRepository.findByDate(date);
+        if (!archives.isEmpty()) {
+            for (LeaderboardArchive archive : archives) {
+                long[] userIds = PackedInts.decodeSortedLongs(archive.getUserIds(), archive.getEntryCount());
+                int[] values = PackedInts.decodeInts(archive.getScores(), archive.getEntryCount());
+                for (int i = 0; i < userIds.length; i++) {
+                    scores.put(userIds[i], values[i]);
+                    colleges.put(userIds[i], archive.getCollege());
+                }
+            }
+        } else {
+            for (Object[] row : leaderboardRepository.findEntriesByDate(date)) {
+                String rowCollege = row[2] != null ? (String) row[2] : NO_COLLEGE;
+                if (college == null || college.equals(rowCollege)) {
+                    scores.merge((Long) row[0], (Integer) row[1], Integer::sum);
+                    colleges.put((Long) row[0], rowCollege);
+                }
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(Math.max(1, Math.min(limit, MAX_STANDINGS)))
+            .collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(ranked.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(User::getId, user -> user));
+        List<LeaderboardResponse> standings = new ArrayList<>(ranked.size());
+        int rank = 1;
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            User user = users.get(entry.getKey());
+            standings.add(LeaderboardResponse.builder()
+                .date(date)
+                .userId(entry.getKey())
+                .userName(user != null ? user.getName() : null)
+                .score(entry.getValue())
+                .college(colleges.get(entry.getKey()))
+                .rank(rank++)
+                .build());
+        }
+        return standings;
+    }
+
+    private int archiveDay(LocalDate date) {
+        List<Object[]> rows = leaderboardRepository.findEntriesByDate(date);
+        Map<String, TreeMap<Long, Integer>> byCollege = new HashMap<>();
+        for (Object[] row : rows) {
+            String college = row[2] != null ? (String) row[2] : NO_COLLEGE;
+            byCollege.computeIfAbsent(college, c -> new TreeMap<>()).merge((Long) row[0], (Integer) row[1], Integer::sum);
+        }
+        for (Map.Entry<String, TreeMap<Long, Integer>> entry : byCollege.entrySet()) {
+            TreeMap<Long, Integer> scores = entry.getValue();
+            LeaderboardArchive archive = leaderboardArchiveRepository.findByDateAndCollege(date, entry.getKey()).orElse(null);
+            if (archive != null) {
+                // Rows written for this day after an earlier run; fold them into the existing archive
+                long[] userIds = PackedInts.decodeSortedLongs(archive.getUserIds(), archive.getEntryCount());
+                int[] values = PackedInts.decodeInts(archive.getScores(), archive.getEntryCount());
+                for (int i = 0; i < userIds.length; i++) {
+                    scores.merge(userIds[i], values[i], Integer::sum);
+                }
+            } else {
+                archive = LeaderboardArchive.builder().date(date).college(entry.getKey()).build();
+            }
+            long[] userIds = new long[scores.size()];
+            int[] values = new int[scores.size()];
+            int i = 0;
+            for (Map.Entry<Long, Integer> score : scores.entrySet()) {
+                userIds[i] = score.getKey();
+                values[i++] = score.getValue();
+            }
+            archive.setEntryCount(userIds.length);
+            archive.setUserIds(PackedInts.encodeSortedLongs(userIds));
+            archive.setScores(PackedInts.encodeInts(values));
+            leaderboardArchiveRepository.save(archive);
+        }
+        leaderboardRepository.deleteByDate(date);
+        return rows.size();
+    }
+}
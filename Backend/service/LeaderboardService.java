@@ -5,13 +5,16 @@ import com.quizapp.model.Leaderboard;
 import com.quizapp.repository.LeaderboardRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.Comparator;
-import java.util.Optional;
 import com.quizapp.dto.LeaderboardResult;
+import com.quizapp.dto.LeaderboardWindowResponse;
 import com.quizapp.model.User;
 import com.quizapp.repository.UserRepository;
 
@@ -20,78 +23,189 @@ import com.quizapp.repository.UserRepository;
 public class LeaderboardService {
     private final LeaderboardRepository leaderboardRepository;
     private final UserRepository userRepository;
+    private final RankingEngine rankingEngine;
+    private final WindowedRankingEngine windowedRankingEngine;
+    private final LeaderboardSnapshotCache snapshotCache;
+    private final LeaderboardStreamService leaderboardStreamService;
 
-    public LeaderboardResult getDailyLeaderboardWithUser(Long userId) {
+    private static final int LEADERBOARD_SIZE = 100;
+    private static final int MAX_WINDOW_RADIUS = 50;
+    private static final String GLOBAL_SCOPE = "global";
+    private static final String COLLEGE_SCOPE_PREFIX = "college:";
+
+    /**
+     * Adds to the user's score for the day, creating the row on first use. Must run inside a transaction;
+     * if a concurrent request inserts the row first, the unique (date, user_id) key rejects the second insert
+     * and the caller retries, which then takes the increment path. Two first inserts of the day can also deadlock
+     * on gap locks, which surfaces as a PessimisticLockingFailureException that callers retry the same way.
+     */
+    public void addDailyScore(User user, LocalDate date, int delta) {
+        if (leaderboardRepository.addScore(date, user.getId(), delta) > 0) {
+            return;
+        }
+        leaderboardRepository.saveAndFlush(Leaderboard.builder()
+            .date(date)
+            .user(user)
+            .score(delta)
+            .college(user.getCollege())
+            .build());
+    }
+
+    /**
+     * Takes points back from the user's row for the day, if it has one. Must run inside a transaction.
+     */
+    public void removeDailyScore(Long userId, LocalDate date, int count) {
+        leaderboardRepository.addScore(date, userId, -count);
+    }
+
+    /**
+     * Global board as JSON. The top 100 is served from a pre-rendered snapshot; only the user's rank is computed per call.
+     */
+    public byte[] getDailyLeaderboardJson(Long userId) {
         LocalDate today = LocalDate.now();
-        List<Leaderboard> all = leaderboardRepository.findByDate(today);
-        // Map userId to Leaderboard
-        java.util.Map<Long, Leaderboard> leaderboardMap = all.stream()
-            .collect(Collectors.toMap(l -> l.getUser().getId(), l -> l));
-        // Fetch all users
-        List<User> allUsers = userRepository.findAll();
-        // Build leaderboard responses for all users
-        List<LeaderboardResponse> responses = allUsers.stream()
-            .map(user -> {
-                // Use user's totalQuizzesSolved from users table for score
-                int userScore = user.getTotalQuizzesSolved() != null ? user.getTotalQuizzesSolved() : 0;
-                return LeaderboardResponse.builder()
-                    .id(leaderboardMap.get(user.getId()) != null ? leaderboardMap.get(user.getId()).getId() : null)
-                    .date(today)
-                    .userId(user.getId())
-                    .userName(user.getName())
-                    .score(userScore)
-                    .college(user.getCollege())
-                    .build();
-            })
-            .sorted(Comparator.comparingInt(LeaderboardResponse::getScore).reversed())
-            .limit(100)
-            .collect(Collectors.toList());
-        // Pad to 100 if needed
-        int currentSize = responses.size();
-        for (int i = currentSize + 1; i <= 100; i++) {
-            responses.add(LeaderboardResponse.builder()
-                .id((long) i)
-                .userId(null)
-                .userName("User " + i)
-                .score(0)
-                .college("")
-                .build());
+        User user = ensureRanked(userId);
+        LeaderboardSnapshotCache.Snapshot snapshot = snapshotCache.get(GLOBAL_SCOPE, rankingEngine.version(),
+            () -> pad(hydrate(rankingEngine.topK(LEADERBOARD_SIZE), today)));
+        Integer userRank = user != null ? rankingEngine.rankOf(userId) : null;
+        return snapshotCache.write(snapshot, userRank, userStats(snapshot, user, userRank, today));
+    }
+
+    /**
+     * College board as JSON, served like the global one from a per-college snapshot.
+     * Only colleges the ranking engine knows get a snapshot, so arbitrary names cannot grow the cache.
+     */
+    public byte[] getCollegeLeaderboardJson(String college, Long userId) {
+        LocalDate today = LocalDate.now();
+        User user = ensureRanked(userId);
+        LeaderboardSnapshotCache.Snapshot snapshot = rankingEngine.size(college) > 0
+            ? snapshotCache.get(COLLEGE_SCOPE_PREFIX + college, rankingEngine.version(),
+                () -> pad(hydrate(rankingEngine.topKInCollege(college, LEADERBOARD_SIZE), today)))
+            : snapshotCache.uncached(rankingEngine.version(), pad(new ArrayList<>()));
+        // Exact position for a member of this college, even outside the top 100
+        Integer userRank = user != null ? rankingEngine.rankInCollege(userId, college) : null;
+        return snapshotCache.write(snapshot, userRank, userRank != null ? userStats(snapshot, user, userRank, today) : null);
+    }
+
+    /**
+     * Ranking by solves in a rolling window: "today", "week" (last 7 days) or "month" (last 30 days).
+     */
+    public LeaderboardResult getWindowLeaderboardWithUser(String window, Long userId) {
+        WindowedRankingEngine.Window range;
+        try {
+            range = WindowedRankingEngine.Window.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown leaderboard window: " + window);
         }
-        // Find user entry and rank
+        LocalDate today = LocalDate.now();
+        List<LeaderboardResponse> responses = hydrate(windowedRankingEngine.topK(range, LEADERBOARD_SIZE), today);
+        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
         Integer userRank = null;
         LeaderboardResponse userStats = null;
-        for (int i = 0; i < responses.size(); i++) {
-            if (responses.get(i).getUserId() != null && responses.get(i).getUserId().equals(userId)) {
-                userStats = responses.get(i);
-                userRank = i + 1;
-                break;
+        if (user != null) {
+            userRank = windowedRankingEngine.rankOf(range, userId);
+            userStats = responses.stream()
+                .filter(response -> userId.equals(response.getUserId()))
+                .findFirst()
+                .orElse(null);
+            if (userStats == null) {
+                userStats = toResponse(user, windowedRankingEngine.scoreOf(range, userId), userRank,
+                    leaderboardRepository.findByDateAndUserId(today, userId).orElse(null), today);
             }
         }
-        return new LeaderboardResult(responses, userRank, userStats);
+        return new LeaderboardResult(pad(responses), userRank, userStats);
+    }
+
+    /**
+     * Opens a live stream of the global board, or of the user's own college board for scope "college".
+     */
+    public SseEmitter subscribe(Long userId, String scope) {
+        User user = ensureRanked(userId);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        boolean inCollege = "college".equalsIgnoreCase(scope);
+        if (inCollege && user.getCollege() == null) {
+            throw new RuntimeException("User has no college");
+        }
+        return leaderboardStreamService.subscribe(userId, inCollege ? user.getCollege() : null);
     }
 
-    public LeaderboardResult getCollegeLeaderboardWithUser(String college, Long userId) {
-        List<Leaderboard> all = leaderboardRepository.findByCollege(college);
-        java.util.Map<Long, Leaderboard> leaderboardMap = all.stream()
+    /**
+     * Users ranked within radius of the given user, globally or within their college (scope "college").
+     */
+    public LeaderboardWindowResponse getLeaderboardAround(Long userId, int radius, String scope) {
+        User user = ensureRanked(userId);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        boolean inCollege = "college".equalsIgnoreCase(scope);
+        int clamped = Math.max(0, Math.min(radius, MAX_WINDOW_RADIUS));
+        List<LeaderboardResponse> entries = hydrate(rankingEngine.around(userId, clamped, inCollege), LocalDate.now());
+        Integer userRank = inCollege ? rankingEngine.rankInCollege(userId, user.getCollege()) : rankingEngine.rankOf(userId);
+        int total = rankingEngine.size(inCollege ? user.getCollege() : null);
+        return new LeaderboardWindowResponse(inCollege ? "college" : "global", userRank, total, entries);
+    }
+
+    // Loads the user and makes sure the engine ranks them; users registered before an event reached the engine are added here
+    private User ensureRanked(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null && rankingEngine.scoreOf(userId) == null) {
+            rankingEngine.track(userId, user.getTotalQuizzesSolved() != null ? user.getTotalQuizzesSolved() : 0, user.getCollege());
+        }
+        return user;
+    }
+
+    // Builds responses for ranked entries with one read for the users and one for their leaderboard rows of the day
+    private List<LeaderboardResponse> hydrate(List<RankingEngine.Ranked> ranked, LocalDate date) {
+        if (ranked.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = ranked.stream().map(RankingEngine.Ranked::userId).collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, user -> user));
+        Map<Long, Leaderboard> leaderboardMap = leaderboardRepository.findByDateAndUserIdIn(date, ids).stream()
             .collect(Collectors.toMap(l -> l.getUser().getId(), l -> l));
-        List<User> allUsers = userRepository.findByCollege(college);
-        List<LeaderboardResponse> responses = allUsers.stream()
-            .map(user -> {
-                int userScore = user.getTotalQuizzesSolved() != null ? user.getTotalQuizzesSolved() : 0;
-                return LeaderboardResponse.builder()
-                    .id(leaderboardMap.get(user.getId()) != null ? leaderboardMap.get(user.getId()).getId() : null)
-                    .date(leaderboardMap.get(user.getId()) != null ? leaderboardMap.get(user.getId()).getDate() : null)
-                    .userId(user.getId())
-                    .userName(user.getName())
-                    .score(userScore)
-                    .college(user.getCollege())
-                    .build();
-            })
-            .sorted(Comparator.comparingInt(LeaderboardResponse::getScore).reversed())
-            .limit(100)
-            .collect(Collectors.toList());
-        int currentSize = responses.size();
-        for (int i = currentSize + 1; i <= 100; i++) {
+        List<LeaderboardResponse> responses = new ArrayList<>(ranked.size());
+        for (RankingEngine.Ranked entry : ranked) {
+            User user = users.get(entry.userId());
+            if (user != null) {
+                responses.add(toResponse(user, entry.score(), entry.rank(), leaderboardMap.get(user.getId()), date));
+            }
+        }
+        return responses;
+    }
+
+    private LeaderboardResponse userStats(LeaderboardSnapshotCache.Snapshot snapshot, User user, Integer userRank, LocalDate date) {
+        if (user == null) {
+            return null;
+        }
+        LeaderboardResponse row = snapshot.rowOf(user.getId());
+        if (row != null && row.getRank() != null && row.getRank().equals(userRank)) {
+            return row;
+        }
+        Integer score = rankingEngine.scoreOf(user.getId());
+        return toResponse(user, score != null ? score : 0, userRank,
+            leaderboardRepository.findByDateAndUserId(date, user.getId()).orElse(null), date);
+    }
+
+    private static LeaderboardResponse toResponse(User user, int score, Integer rank, Leaderboard leaderboard, LocalDate date) {
+        return LeaderboardResponse.builder()
+            .id(leaderboard != null ? leaderboard.getId() : null)
+            .date(date)
+            .userId(user.getId())
+            .userName(user.getName())
+            .score(score)
+            .college(user.getCollege())
+            .rank(rank)
+            .build();
+    }
+
+    // Pad to 100 rows with placeholders, as clients expect a full board
+    private static List<LeaderboardResponse> pad(List<LeaderboardResponse> responses) {
+        for (int i = responses.size() + 1; i <= LEADERBOARD_SIZE; i++) {
             responses.add(LeaderboardResponse.builder()
                 .id((long) i)
                 .userId(null)
@@ -100,17 +214,7 @@ public class LeaderboardService {
                 .college("")
                 .build());
         }
-        // Find user entry and rank
-        Integer userRank = null;
-        LeaderboardResponse userStats = null;
-        for (int i = 0; i < responses.size(); i++) {
-            if (responses.get(i).getUserId() != null && responses.get(i).getUserId().equals(userId)) {
-                userStats = responses.get(i);
-                userRank = i + 1;
-                break;
-            }
-        }
-        return new LeaderboardResult(responses, userRank, userStats);
+        return responses;
     }
 
     private LeaderboardResponse toResponse(Leaderboard leaderboard) {
@@ -0,0 +1,140 @@
+package com.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizapp.dto.LeaderboardResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pre-serialized top-100 leaderboard JSON per scope (global, or one college).
+ * A snapshot is re-rendered when the ranking version has moved and it is at least the minimum interval old,
+ * or once it passes the maximum age, which picks up profile edits such as names. While one request re-renders
+ * a scope, others keep serving the previous snapshot. Only the requesting user's rank and stats are serialized per call.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardSnapshotCache {
+    private static final byte[] TOP_PREFIX = "{\"top100\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RANK_PREFIX = ",\"userRank\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STATS_PREFIX = ",\"userStats\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.leaderboard.snapshot-min-interval-ms:2000}")
+    private long minIntervalMillis;
+    @Value("${app.leaderboard.snapshot-max-age-ms:60000}")
+    private long maxAgeMillis;
+
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Current snapshot for the scope, re-rendered from rows if it is stale for the given ranking version.
+     */
+    public Snapshot get(String scope, long version, Supplier<List<LeaderboardResponse>> rows) {
+        Snapshot snapshot = snapshots.get(scope);
+        if (snapshot != null && !isStale(snapshot, version)) {
+            return snapshot;
+        }
+        ReentrantLock lock = locks.computeIfAbsent(scope, s -> new ReentrantLock());
+        if (snapshot != null && !lock.tryLock()) {
+            // Someone else is rendering this scope; the previous snapshot is good enough meanwhile
+            return snapshot;
+        }
+        if (snapshot == null) {
+            lock.lock();
+        }
+        try {
+            snapshot = snapshots.get(scope);
+            if (snapshot == null || isStale(snapshot, version)) {
+                snapshot = render(version, rows.get());
+                snapshots.put(scope, snapshot);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A one-off snapshot that is not kept, for scopes that should not take a cache slot (such as a college with no
+     * ranked users, whose name came straight from the request).
+     */
+    public Snapshot uncached(long version, List<LeaderboardResponse> rows) {
+        return render(version, rows);
+    }
+
+    /**
+     * Full LeaderboardResult JSON: the cached top 100 followed by the per-user rank and stats.
+     */
+    public byte[] write(Snapshot snapshot, Integer userRank, LeaderboardResponse userStats) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.json.length + 256);
+            out.write(TOP_PREFIX);
+            out.write(snapshot.json);
+            out.write(RANK_PREFIX);
+            out.write(objectMapper.writeValueAsBytes(userRank));
+            out.write(STATS_PREFIX);
+            out.write(objectMapper.writeValueAsBytes(userStats));
+            out.write('}');
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize leaderboard", e);
+        }
+    }
+
+    private boolean isStale(Snapshot snapshot, long version) {
+        long age = System.currentTimeMillis() - snapshot.builtAt;
+        return age >= maxAgeMillis || (snapshot.version != version && age >= minIntervalMillis);
+    }
+
+    private Snapshot render(long version, List<LeaderboardResponse> rows) {
+        Map<Long, LeaderboardResponse> byUser = new HashMap<>();
+        for (LeaderboardResponse row : rows) {
+            if (row.getUserId() != null) {
+                byUser.put(row.getUserId(), row);
+            }
+        }
+        try {
+            return new Snapshot(objectMapper.writeValueAsBytes(rows), byUser, version, System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize leaderboard", e);
+        }
+    }
+
+    /**
+     * Rendered top rows of one scope. Rows are shared and must not be modified.
+     */
+    public static final class Snapshot {
+        private final byte[] json;
+        private final Map<Long, LeaderboardResponse> byUser;
+        private final long version;
+        private final long builtAt;
+
+        private Snapshot(byte[] json, Map<Long, LeaderboardResponse> byUser, long version, long builtAt) {
+            this.json = json;
+            this.byUser = byUser;
+            this.version = version;
+            this.builtAt = builtAt;
+        }
+
+        /**
+         * The user's row if they are in this snapshot, else null.
+         */
+        public LeaderboardResponse rowOf(Long userId) {
+            return userId != null ? byUser.get(userId) : null;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.quizapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizapp.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes leaderboard changes to Server-Sent Event subscribers of a scope (global, or one college).
+ * Changes are coalesced: every tick, each scope with subscribers diffs its current top 100 against the previous tick
+ * and sends one serialized delta to all of them, plus a personal "me" event to subscribers whose own rank moved.
+ * Each subscriber has a bounded queue drained by a sender pool; a subscriber that falls behind has its queue
+ * dropped and gets a single "resync" event telling it to reload the board. A write that stalls past the write timeout
+ * drops the subscriber and its stream is closed, so the client reconnects and starts again from a fresh snapshot.
+ * Ticks run on the service's own scheduler thread, so long nightly jobs on Spring's scheduler do not delay pushes.
+ */
+@Slf4j
+@Component
+public class LeaderboardStreamService {
+    private static final int TOP_SIZE = 100;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final RankingEngine rankingEngine;
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final long intervalMillis;
+    private final long heartbeatMillis;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<String, Scope> scopes = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private long lastVersion = -1;
+
+    public LeaderboardStreamService(RankingEngine rankingEngine, ObjectMapper objectMapper,
+                                    @Value("${app.leaderboard.stream-max-subscribers:10000}") int maxSubscribers,
+                                    @Value("${app.leaderboard.stream-sender-threads:32}") int senderThreads,
+                                    @Value("${app.leaderboard.stream-interval-ms:500}") long intervalMillis,
+                                    @Value("${app.leaderboard.stream-heartbeat-ms:15000}") long heartbeatMillis,
+                                    @Value("${app.leaderboard.stream-write-timeout-ms:5000}") long writeTimeoutMillis) {
+        this.rankingEngine = rankingEngine;
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.intervalMillis = intervalMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        // Threads are started on demand and retire when idle; a peer stalled in a write holds at most one of them
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for the user. A null college subscribes to the global board.
+     * The first events are the current top 100 and the user's own rank.
+     */
+    public SseEmitter subscribe(Long userId, String college) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many leaderboard subscribers");
+        }
+        String key = college != null ? "college:" + college : "global";
+        Scope scope = scopes.computeIfAbsent(key, k -> {
+            Scope created = new Scope(college);
+            // Baseline for the first delta; new subscribers get the full list as their snapshot
+            created.diff(rankingEngine);
+            return created;
+        });
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(EMITTER_TIMEOUT_MILLIS));
+        subscriber.emitter.onCompletion(() -> unsubscribe(scope, subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(scope, subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(scope, subscriber));
+
+        // Register before reading the snapshot, so no delta published in between is lost; a delta that repeats
+        // what the snapshot already shows is harmless
+        scope.subscribers.add(subscriber);
+        List<RankingEngine.Ranked> top = scope.top(rankingEngine);
+        subscriber.lastRank = rank(scope, userId);
+        enqueue(subscriber, message("snapshot", Map.of("entries", top)));
+        enqueue(subscriber, message("me", me(scope, userId, subscriber.lastRank)));
+        return subscriber.emitter;
+    }
+
+    private void tick() {
+        try {
+            dropStalledSubscribers();
+            publishChanges();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Leaderboard stream tick failed", e);
+        }
+    }
+
+    /**
+     * Coalesces all ranking changes since the previous tick into one delta per subscribed scope.
+     */
+    public void publishChanges() {
+        long version = rankingEngine.version();
+        if (version == lastVersion) {
+            return;
+        }
+        lastVersion = version;
+        for (Scope scope : scopes.values()) {
+            if (scope.subscribers.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> delta = scope.diff(rankingEngine);
+            Message shared = delta != null ? message("delta", delta) : null;
+            for (Subscriber subscriber : scope.subscribers) {
+                if (shared != null) {
+                    enqueue(subscriber, shared);
+                }
+                Integer rank = rank(scope, subscriber.userId);
+                if (rank != null && !rank.equals(subscriber.lastRank)) {
+                    subscriber.lastRank = rank;
+                    enqueue(subscriber, message("me", me(scope, subscriber.userId, rank)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Comment line to every subscriber, so dead connections are noticed and cleaned up.
+     */
+    public void heartbeat() {
+        Message ping = new Message(null, null);
+        for (Scope scope : scopes.values()) {
+            for (Subscriber subscriber : scope.subscribers) {
+                enqueue(subscriber, ping);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // A subscriber whose current write has outlived the timeout stops receiving events; its sender thread is
+    // interrupted, and the stream is closed once the write returns or fails
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Scope scope : scopes.values()) {
+            for (Subscriber subscriber : scope.subscribers) {
+                long started = subscriber.writeStartedAt;
+                if (started != 0 && now - started > writeTimeoutNanos) {
+                    log.debug("Dropping leaderboard subscriber {} after a stalled write", subscriber.userId);
+                    subscriber.dropped = true;
+                    unsubscribe(scope, subscriber);
+                    subscriber.queue.clear();
+                    Thread sender = subscriber.sender;
+                    if (sender != null) {
+                        sender.interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Scope scope, Subscriber subscriber) {
+        if (scope.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            // Too far behind for deltas to be useful; drop them and ask the client to reload
+            subscriber.queue.clear();
+            subscriber.queue.offer(message("resync", Map.of()));
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.sender = Thread.currentThread();
+        try {
+            Message message;
+            while (!subscriber.dropped && (message = subscriber.queue.poll()) != null) {
+                subscriber.writeStartedAt = System.nanoTime();
+                if (message.name == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(message.name).data(message.json, MediaType.APPLICATION_JSON));
+                }
+                subscriber.writeStartedAt = 0;
+            }
+            if (subscriber.dropped) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.writeStartedAt = 0;
+            subscriber.sender = null;
+            subscriber.scheduled.set(false);
+            // A message may have arrived after the last poll but before the flag was cleared
+            if (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private Integer rank(Scope scope, Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return scope.college != null ? rankingEngine.rankInCollege(userId, scope.college) : rankingEngine.rankOf(userId);
+    }
+
+    private Map<String, Object> me(Scope scope, Long userId, Integer rank) {
+        Map<String, Object> me = new HashMap<>();
+        me.put("rank", rank);
+        me.put("score", userId != null ? rankingEngine.scoreOf(userId) : null);
+        return me;
+    }
+
+    private Message message(String name, Object payload) {
+        try {
+            return new Message(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize leaderboard event", e);
+        }
+    }
+
+    private record Message(String name, String json) {
+    }
+
+    private static final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Message> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile Integer lastRank;
+        // System.nanoTime() when the write in progress began, 0 when idle
+        volatile long writeStartedAt;
+        volatile Thread sender;
+        volatile boolean dropped;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Subscribers of one board and the top entries last sent to them.
+     */
+    private static final class Scope {
+        final String college;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private Map<Long, RankingEngine.Ranked> lastTop = Map.of();
+
+        Scope(String college) {
+            this.college = college;
+        }
+
+        List<RankingEngine.Ranked> top(RankingEngine engine) {
+            return college != null ? engine.topKInCollege(college, TOP_SIZE) : engine.topK(TOP_SIZE);
+        }
+
+        // Entries whose rank or score changed and users who left the top, or null when nothing moved
+        synchronized Map<String, Object> diff(RankingEngine engine) {
+            Map<Long, RankingEngine.Ranked> current = new HashMap<>();
+            List<RankingEngine.Ranked> changed = new ArrayList<>();
+            for (RankingEngine.Ranked entry : top(engine)) {
+                current.put(entry.userId(), entry);
+                if (!entry.equals(lastTop.get(entry.userId()))) {
+                    changed.add(entry);
+                }
+            }
+            List<Long> removed = new ArrayList<>();
+            for (Long userId : lastTop.keySet()) {
+                if (!current.containsKey(userId)) {
+                    removed.add(userId);
+                }
+            }
+            lastTop = current;
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> delta = new HashMap<>();
+            delta.put("changed", changed);
+            delta.put("removed", removed);
+            return delta;
+        }
+    }
+}
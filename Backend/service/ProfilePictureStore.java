@@ -0,0 +1,297 @@
+package com.quizapp.service;
+
+import com.quizapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for profile pictures. An upload is streamed to a temp file while it is hashed, then
+ * moved to {@code <sha256>.<ext>}; identical uploads share one file. Square thumbnails are rendered next to the
+ * original on a bounded background pool. Files are only ever deleted by the nightly sweep, which removes those no user
+ * references, including pictures saved under the old timestamped names. Deleting on replace could race a concurrent
+ * upload of the same content whose user row is not saved yet.
+ */
+@Slf4j
+@Component
+public class ProfilePictureStore {
+    public static final String URL_PREFIX = "/uploads/profile-pics/";
+    public static final int[] THUMBNAIL_SIZES = { 64, 128, 256 };
+    private static final int MAX_DIMENSION = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Duration SWEEP_GRACE = Duration.ofHours(1);
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})(?:_(\\d+))?\\.(png|jpg|gif|bmp)");
+    // One path segment, not hidden; older uploads kept the client's file name
+    private static final Pattern SAFE_NAME = Pattern.compile("[^/\\\\\\x00.][^/\\\\\\x00]*");
+
+    private final UserRepository userRepository;
+    private final Path root;
+    private final ThreadPoolExecutor thumbnailExecutor;
+
+    public ProfilePictureStore(UserRepository userRepository,
+                               @Value("${app.uploads.profile-pics-dir:uploads/profile-pics}") String root,
+                               @Value("${app.uploads.thumbnail-threads:2}") int thumbnailThreads,
+                               @Value("${app.uploads.thumbnail-queue:100}") int thumbnailQueue) {
+        this.userRepository = userRepository;
+        this.root = Paths.get(root);
+        this.thumbnailExecutor = new ThreadPoolExecutor(thumbnailThreads, thumbnailThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(thumbnailQueue));
+    }
+
+    /**
+     * Stores an uploaded image and returns its URL. Thumbnails are queued and appear shortly after.
+     */
+    public String store(InputStream in) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            String hash = copyHashed(in, temp);
+            String extension = probe(temp);
+            String name = hash + "." + extension;
+            Path target = root.resolve(name);
+            if (Files.exists(target)) {
+                // Same content is already stored; refresh its timestamp so it counts as a fresh upload for cleanup
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            scheduleThumbnails(hash, extension);
+            return URL_PREFIX + name;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * URL of the smallest thumbnail at least the given size, or the original when none has been rendered
+     * (pictures stored before thumbnails existed, or still in the queue).
+     */
+    public String thumbnailUrl(String pictureUrl, int size) {
+        Matcher matcher = match(pictureUrl);
+        if (matcher == null || matcher.group(2) != null) {
+            return pictureUrl;
+        }
+        for (int thumbnailSize : THUMBNAIL_SIZES) {
+            if (thumbnailSize >= size) {
+                String name = thumbnailName(matcher.group(1), thumbnailSize, matcher.group(3));
+                return Files.exists(root.resolve(name)) ? URL_PREFIX + name : pictureUrl;
+            }
+        }
+        return pictureUrl;
+    }
+
+    /**
+     * The stored file with this name, or null if there is none. Names with path separators are refused.
+     */
+    public Path resolve(String name) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            return null;
+        }
+        Path file = root.resolve(name).normalize();
+        return file.getParent() != null && file.getParent().equals(root.normalize()) && Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * True for originals and thumbnails named by content hash, whose bytes never change.
+     */
+    public static boolean isContentAddressed(String name) {
+        return name != null && STORED_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Deletes files in the upload directory that no user references, keeping anything modified within the grace
+     * period so uploads whose user row is not saved yet survive.
+     */
+    @Scheduled(cron = "${app.uploads.sweep-cron:0 30 4 * * *}")
+    public void sweep() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>();
+        for (String url : userRepository.findProfilePictures()) {
+            if (url.startsWith(URL_PREFIX)) {
+                String name = url.substring(URL_PREFIX.length());
+                referenced.add(name);
+                Matcher matcher = STORED_NAME.matcher(name);
+                if (matcher.matches()) {
+                    referenced.add(matcher.group(1));
+                }
+            }
+        }
+        Instant cutoff = Instant.now().minus(SWEEP_GRACE);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher matcher = STORED_NAME.matcher(name);
+                boolean inUse = referenced.contains(name) || (matcher.matches() && referenced.contains(matcher.group(1)));
+                if (!inUse && Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Profile picture sweep failed", e);
+        }
+        log.info("Profile picture sweep deleted {} files", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    // Streams the upload into the file through a channel, hashing each chunk as it is written
+    private static String copyHashed(InputStream in, Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Reads only the image header: the format decides the extension and oversized images are refused before decoding
+    private static String probe(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if (reader.getWidth(0) > MAX_DIMENSION || reader.getHeight(0) > MAX_DIMENSION) {
+                    throw new RuntimeException("Image is larger than " + MAX_DIMENSION + "x" + MAX_DIMENSION);
+                }
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                switch (format) {
+                    case "jpeg":
+                    case "jpg":
+                        return "jpg";
+                    case "png":
+                    case "gif":
+                    case "bmp":
+                        return format;
+                    default:
+                        throw new RuntimeException("Unsupported image format");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void scheduleThumbnails(String hash, String extension) {
+        if (Files.exists(root.resolve(thumbnailName(hash, THUMBNAIL_SIZES[THUMBNAIL_SIZES.length - 1], extension)))) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> renderThumbnails(hash, extension));
+        } catch (RejectedExecutionException e) {
+            log.warn("Thumbnail queue full, serving the original for {}", hash);
+        }
+    }
+
+    private void renderThumbnails(String hash, String extension) {
+        try {
+            BufferedImage source = ImageIO.read(root.resolve(hash + "." + extension).toFile());
+            if (source == null) {
+                return;
+            }
+            // Center square crop, so every size is a proper avatar
+            int side = Math.min(source.getWidth(), source.getHeight());
+            BufferedImage square = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+            String outputFormat = "jpg".equals(extension) ? "jpg" : "png";
+            for (int size : THUMBNAIL_SIZES) {
+                BufferedImage thumbnail = new BufferedImage(size, size,
+                    "jpg".equals(outputFormat) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = thumbnail.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(square, 0, 0, size, size, null);
+                } finally {
+                    graphics.dispose();
+                }
+                // Write under a temp name and move, so a thumbnail is never seen half-written
+                Path temp = Files.createTempFile(root, "thumb-", ".tmp");
+                try {
+                    ImageIO.write(thumbnail, outputFormat, temp.toFile());
+                    Files.move(temp, root.resolve(thumbnailName(hash, size, extension)), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to render thumbnails for {}", hash, e);
+        }
+    }
+
+    // Thumbnails of PNG, GIF and BMP originals are PNG; of JPEG originals, JPEG
+    private static String thumbnailName(String hash, int size, String extension) {
+        return hash + "_" + size + "." + ("jpg".equals(extension) ? "jpg" : "png");
+    }
+
+    private static Matcher match(String pictureUrl) {
+        if (pictureUrl == null || !pictureUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Matcher matcher = STORED_NAME.matcher(pictureUrl.substring(URL_PREFIX.length()));
+        return matcher.matches() ? matcher : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
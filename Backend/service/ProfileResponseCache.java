@@ -0,0 +1,88 @@
+package com.quizapp.service;
+
+import com.quizapp.dto.ProfileResponse;
+import com.quizapp.dto.SearchProfileResponse;
+import com.quizapp.event.ProfileChangedEvent;
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.event.UserScoreChangedEvent;
+import com.quizapp.utils.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the own-profile and public-profile responses, bounded by size and age.
+ * Entries are evicted after commit by every event that changes what a profile shows. Ranks move with other
+ * users' scores too, so the TTL bounds how stale a cached rank can get. Cached responses are shared and must not
+ * be modified.
+ */
+@Component
+public class ProfileResponseCache {
+    private final BoundedCache<Long, ProfileResponse> profiles;
+    private final BoundedCache<Long, SearchProfileResponse> publicProfiles;
+    // Bumped on every eviction so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProfileResponseCache(@Value("${app.profile.cache-size:10000}") int maxEntries,
+                                @Value("${app.profile.cache-ttl-ms:30000}") long ttlMillis) {
+        this.profiles = new BoundedCache<>(maxEntries, Long.MAX_VALUE, response -> 0, ttlMillis);
+        this.publicProfiles = new BoundedCache<>(maxEntries, Long.MAX_VALUE, response -> 0, ttlMillis);
+    }
+
+    public ProfileResponse profile(Long userId, Supplier<ProfileResponse> loader) {
+        return getOrLoad(profiles, userId, loader);
+    }
+
+    public SearchProfileResponse publicProfile(Long userId, Supplier<SearchProfileResponse> loader) {
+        return getOrLoad(publicProfiles, userId, loader);
+    }
+
+    public void evict(Long userId) {
+        generation.incrementAndGet();
+        profiles.remove(userId);
+        publicProfiles.remove(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(UserScoreChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public Map<String, BoundedCache.Stats> stats() {
+        Map<String, BoundedCache.Stats> stats = new LinkedHashMap<>();
+        stats.put("profiles", profiles.stats());
+        stats.put("publicProfiles", publicProfiles.stats());
+        return stats;
+    }
+
+    private <V> V getOrLoad(BoundedCache<Long, V> cache, Long userId, Supplier<V> loader) {
+        V cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        V loaded = loader.get();
+        cache.put(userId, loaded);
+        // An eviction that ran while loading may have missed this entry; drop it so the next read reloads
+        if (generation.get() != loadGeneration) {
+            cache.remove(userId);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,230 @@
+package com.quizapp.service;
+
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.model.User;
+import com.quizapp.repository.UserRepository;
+import com.quizapp.utils.CompactIdSet;
+import com.quizapp.utils.LongObjectMap;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over user name, email and college for profile search.
+ * A query's trigrams are intersected, starting from the rarest, to get candidates, which are then checked with a
+ * substring match so results equal the old contains() scan. Queries shorter than three characters fall back to
+ * scanning the indexed fields. Kept current from UserChangedEvent.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileSearchIndex {
+    private final UserRepository userRepository;
+
+    private final LongObjectMap<Entry> entries = new LongObjectMap<>(1024);
+    private final Map<Long, CompactIdSet> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the index from the users table.
+     */
+    public void rebuild() {
+        List<Object[]> rows = userRepository.findSearchFields();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], new Entry((String) row[1], (String) row[2], (String) row[3], row[4] == User.Role.STUDENT));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Profile search index loaded {} users", rows.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.userId());
+        } else {
+            userRepository.findById(event.userId()).ifPresent(this::put);
+        }
+    }
+
+    public void put(User user) {
+        Entry entry = new Entry(user.getName(), user.getEmail(), user.getCollege(), user.getRole() == User.Role.STUDENT);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(user.getId());
+            if (previous != null) {
+                removeEntry(user.getId(), previous);
+            }
+            add(user.getId(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(userId);
+            if (previous != null) {
+                removeEntry(userId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Matching user ids, best matches first: name prefix, then name, email and college substring matches,
+     * each group in id order. Returns the requested page and the total number of matches.
+     */
+    public SearchPage search(String query, boolean studentsOnly, int offset, int limit) {
+        String q = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (q.isEmpty()) {
+            return new SearchPage(List.of(), 0);
+        }
+        List<long[]> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long userId : candidates(q)) {
+                Entry entry = entries.get(userId);
+                if (entry == null || (studentsOnly && !entry.student())) {
+                    continue;
+                }
+                int tier = entry.matchTier(q);
+                if (tier >= 0) {
+                    matches.add(new long[] { tier, userId });
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.<long[]>comparingLong(m -> m[0]).thenComparingLong(m -> m[1]));
+        int from = Math.min(Math.max(0, offset), matches.size());
+        int to = (int) Math.min((long) from + Math.max(0, limit), matches.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(matches.get(i)[1]);
+        }
+        return new SearchPage(ids, matches.size());
+    }
+
+    // Ids that contain every trigram of the query, or every indexed id for queries too short to have one
+    private long[] candidates(String q) {
+        if (q.length() < 3) {
+            return entries.keys();
+        }
+        Set<Long> grams = trigrams(q);
+        List<CompactIdSet> sets = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            CompactIdSet set = postings.get(gram);
+            if (set == null) {
+                return new long[0];
+            }
+            sets.add(set);
+        }
+        sets.sort(Comparator.comparingInt(CompactIdSet::size));
+        long[] ids = sets.get(0).toArray();
+        int kept = 0;
+        for (long id : ids) {
+            boolean all = true;
+            for (int i = 1; i < sets.size() && all; i++) {
+                all = sets.get(i).contains(id);
+            }
+            if (all) {
+                ids[kept++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, kept);
+    }
+
+    private void add(long userId, Entry entry) {
+        entries.put(userId, entry);
+        for (Long gram : entry.trigrams()) {
+            postings.computeIfAbsent(gram, g -> new CompactIdSet()).add(userId);
+        }
+    }
+
+    private void removeEntry(long userId, Entry entry) {
+        entries.remove(userId);
+        for (Long gram : entry.trigrams()) {
+            CompactIdSet set = postings.get(gram);
+            if (set != null) {
+                set.remove(userId);
+                if (set.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        addTrigrams(text, grams);
+        return grams;
+    }
+
+    private static void addTrigrams(String text, Set<Long> grams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    public record SearchPage(List<Long> userIds, int total) {
+    }
+
+    /**
+     * Lower-cased searchable fields of one user.
+     */
+    private record Entry(String name, String email, String college, boolean student) {
+        Entry {
+            name = name != null ? name.toLowerCase(Locale.ROOT) : "";
+            email = email != null ? email.toLowerCase(Locale.ROOT) : "";
+            college = college != null ? college.toLowerCase(Locale.ROOT) : "";
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> grams = new HashSet<>();
+            addTrigrams(name, grams);
+            addTrigrams(email, grams);
+            addTrigrams(college, grams);
+            return grams;
+        }
+
+        int matchTier(String q) {
+            if (name.startsWith(q)) {
+                return 0;
+            }
+            if (name.contains(q)) {
+                return 1;
+            }
+            if (email.contains(q)) {
+                return 2;
+            }
+            return college.contains(q) ? 3 : -1;
+        }
+    }
+}
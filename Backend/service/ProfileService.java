@@ -1,46 +1,68 @@
 package com.quizapp.service;
 
 import com.quizapp.dto.ProfileResponse;
+import com.quizapp.dto.ProfileSuggestion;
 import com.quizapp.dto.SearchProfileResponse;
 import com.quizapp.dto.ProfileUpdateRequest;
+import com.quizapp.event.ProfileChangedEvent;
+import com.quizapp.event.UserChangedEvent;
 import com.quizapp.model.User;
-import com.quizapp.model.UserQuizAttempt;
+import com.quizapp.model.UserStats;
 import com.quizapp.repository.UserRepository;
-import com.quizapp.repository.UserQuizAttemptRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 @Service
 @RequiredArgsConstructor
 public class ProfileService {
     private final UserRepository userRepository;
-    private final UserQuizAttemptRepository userQuizAttemptRepository;
+    private final UserStatsService userStatsService;
+    private final RankingEngine rankingEngine;
+    private final ProfileSearchIndex profileSearchIndex;
+    private final ProfileSuggestIndex profileSuggestIndex;
+    private final ProfilePictureStore profilePictureStore;
+    private final ProfileResponseCache profileResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_SAVE_RETRIES = 3;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int LIST_THUMBNAIL_SIZE = 64;
 
     public ProfileResponse getProfile(Long userId) {
+        return profileResponseCache.profile(userId, () -> loadProfile(userId));
+    }
+
+    private ProfileResponse loadProfile(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         int daysActive = user.getDaysActive() != null ? user.getDaysActive() : 0;
 
-        List<UserQuizAttempt> attempts = userQuizAttemptRepository.findByUserId(userId);
-        double averageScore = 0.0;
-        int attemptedCount = (int) attempts.stream().filter(UserQuizAttempt::isAttempted).count();
-        if (attemptedCount > 0) {
-            int totalScore = attempts.stream()
-                .filter(UserQuizAttempt::isAttempted)
-                .mapToInt(a -> a.getScore() != null ? a.getScore() : 0)
-                .sum();
-            averageScore = (double)attemptedCount;
-        }
+        UserStats stats = userStatsService.get(userId);
 
-        String rank = calculateRank(userId);
+        String rank = calculateRank(user);
         return ProfileResponse.builder()
                 .userId(user.getId())
                 .name(user.getName())
@@ -54,63 +76,74 @@ public class ProfileService {
                 .profilePicture(user.getProfilePicture())
                 .lastLogin(user.getLastLogin() != null ? user.getLastLogin().toString() : "Never")
                 .createdAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : "")
-                .averageScore(averageScore)
-                .totalQuestionsAnswered(attemptedCount)
+                .averageScore(UserStatsService.averageScore(stats))
+                .totalQuestionsAnswered(stats.getAttempted())
                 .rank(rank)
                 .mobileNumber(user.getMobileNumber())
-                .links(user.getLinks() != null ? user.getLinks() : java.util.Collections.emptyList())
+                .links(linksOf(userId))
                 .build();
     }
 
     public ProfileResponse updateProfile(ProfileUpdateRequest request) {
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        if (request.getName() != null && !request.getName().isEmpty()) {
-            user.setName(request.getName());
-        }
-        // Only update mobileNumber if provided and not empty, otherwise retain existing
-        if (request.getMobileNumber() != null && !request.getMobileNumber().isEmpty()) {
-            user.setMobileNumber(request.getMobileNumber());
-        }
-        if (request.getLinks() != null) {
-            user.setLinks(request.getLinks());
-        }
-        userRepository.save(user);
+        User user = saveWithRetry(request.getUserId(), current -> {
+            if (request.getName() != null && !request.getName().isEmpty()) {
+                current.setName(request.getName());
+            }
+            // Only update mobileNumber if provided and not empty, otherwise retain existing
+            if (request.getMobileNumber() != null && !request.getMobileNumber().isEmpty()) {
+                current.setMobileNumber(request.getMobileNumber());
+            }
+            if (request.getLinks() != null) {
+                current.setLinks(request.getLinks());
+            }
+        });
+        eventPublisher.publishEvent(UserChangedEvent.saved(user));
         return getProfile(user.getId());
     }
     public ProfileResponse updateProfilePicture(Long userId, MultipartFile file) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        String stored = null;
         if (file != null && !file.isEmpty()) {
-            try {
-                String uploadDir = "uploads/profile-pics/";
-                File dir = new File(uploadDir);
-                if (!dir.exists()) dir.mkdirs();
-                String fileName = "user_" + userId + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                File dest = new File(dir, fileName);
-                file.transferTo(dest);
-                String fileUrl = "/uploads/profile-pics/" + fileName;
-                user.setProfilePicture(fileUrl);
+            try (InputStream in = file.getInputStream()) {
+                stored = profilePictureStore.store(in);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to save profile picture", e);
             }
         }
-        userRepository.save(user);
+        String picture = stored;
+        // The replaced file stays until the nightly sweep finds it unreferenced
+        User user = saveWithRetry(userId, current -> {
+            if (picture != null) {
+                current.setProfilePicture(picture);
+            }
+        });
+        eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
         return getProfile(user.getId());
     }
 
-    public List<SearchProfileResponse> searchStudents(String query) {
-        return userRepository.findAll().stream()
-                .filter(user ->
-                    (user.getName() != null && user.getName().toLowerCase().contains(query.toLowerCase())) ||
-                    (user.getEmail() != null && user.getEmail().toLowerCase().contains(query.toLowerCase())) ||
-                    (user.getCollege() != null && user.getCollege().toLowerCase().contains(query.toLowerCase()))
-                )
-                .map(this::toSearchProfileResponse)
-                .collect(Collectors.toList());
+    /**
+     * Autocomplete for student search: students whose name, a word of their name or their college starts with
+     * the prefix, most quizzes solved first.
+     */
+    public List<ProfileSuggestion> suggestStudents(String prefix, int limit) {
+        return profileSuggestIndex.suggest(prefix, Math.max(1, Math.min(limit, ProfileSuggestIndex.TOP_K)));
+    }
+
+    /**
+     * Users matching the query, or every user for an empty query. Page and size are both optional;
+     * without either the first MAX_PAGE_SIZE results are returned.
+     */
+    public Page<SearchProfileResponse> searchStudents(String query, Integer page, Integer size) {
+        if (query == null || query.trim().isEmpty()) {
+            return getAllProfiles(page, size);
+        }
+        return search(query, false, page, size);
     }
 
     public SearchProfileResponse getPublicProfile(Long userId) {
+        return profileResponseCache.publicProfile(userId, () -> loadPublicProfile(userId));
+    }
+
+    private SearchProfileResponse loadPublicProfile(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -118,68 +151,122 @@ public class ProfileService {
             throw new RuntimeException("Only student profiles are public");
         }
 
-        return toSearchProfileResponse(user);
+        return toSearchProfileResponses(List.of(user)).get(0);
     }
 
-    public List<SearchProfileResponse> getAllProfiles() {
-        return userRepository.findAll().stream()
-                .map(this::toSearchProfileResponse)
-                .collect(Collectors.toList());
+    public Page<SearchProfileResponse> getAllProfiles(Integer page, Integer size) {
+        Page<User> users = userRepository.findAll(PageRequest.of(pageNumber(page), pageSize(page, size), Sort.by("id")));
+        return new PageImpl<>(toSearchProfileResponses(users.getContent()), users.getPageable(), users.getTotalElements());
     }
 
-    public List<SearchProfileResponse> getAllProfiles(String query) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getRole() == User.Role.STUDENT)
-                .filter(user -> user.getName().toLowerCase().contains(query.toLowerCase())
-                        || user.getEmail().toLowerCase().contains(query.toLowerCase())
-                        || user.getCollege().toLowerCase().contains(query.toLowerCase()))
-                .map(this::toSearchProfileResponse)
+    public Page<SearchProfileResponse> getAllProfiles(String query, Integer page, Integer size) {
+        return search(query, true, page, size);
+    }
+
+    // Candidate ids come from the trigram index; only the requested page of users is loaded
+    private Page<SearchProfileResponse> search(String query, boolean studentsOnly, Integer page, Integer size) {
+        int pageSize = pageSize(page, size);
+        int pageNumber = pageNumber(page);
+        ProfileSearchIndex.SearchPage result = profileSearchIndex.search(query, studentsOnly,
+                (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE), pageSize);
+        Map<Long, User> users = userRepository.findAllById(result.userIds()).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        List<User> ordered = result.userIds().stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        List<SearchProfileResponse> content = toSearchProfileResponses(ordered);
+        return new PageImpl<>(content, PageRequest.of(pageNumber, pageSize), result.total());
     }
 
-    private SearchProfileResponse toSearchProfileResponse(User user) {
-        String rank = calculateRank(user.getId());
-        // Calculate average score for this user
-        List<UserQuizAttempt> attempts = userQuizAttemptRepository.findByUserId(user.getId());
-        double averageScore = 0.0;
-        int attemptedCount = (int) attempts.stream().filter(UserQuizAttempt::isAttempted).count();
-        if (attemptedCount > 0) {
-            int totalScore = attempts.stream()
-                .filter(UserQuizAttempt::isAttempted)
-                .mapToInt(a -> a.getScore() != null ? a.getScore() : 0)
-                .sum();
-            averageScore = (double) attemptedCount;
-        }
-        return SearchProfileResponse.builder()
-                .userId(user.getId())
-                .name(user.getName())
-                .email(user.getEmail() != null ? user.getEmail() : "N/A")
-                .college(user.getCollege())
-                .role(user.getRole() != null ? user.getRole().name() : "STUDENT")
-                .totalQuizzesSolved(user.getTotalQuizzesSolved())
-                .currentStreak(user.getCurrentStreak())
-                .profilePicture(user.getProfilePicture())
-                .averageScore(averageScore)
-                .rank(rank)
-                .isPublic(true)
-                .links(user.getLinks() != null ? user.getLinks() : java.util.Collections.emptyList())
-                .build();
+    // Requests without paging parameters come from older clients that expect one full list; they get the largest
+    // page rather than the whole table, since /api/profile/all is open to anonymous callers
+    private static int pageSize(Integer page, Integer size) {
+        return page == null && size == null ? MAX_PAGE_SIZE : clampPageSize(size);
     }
 
-    private String calculateRank(Long userId) {
-        List<User> allUsers = userRepository.findAll();
-        List<User> sortedUsers = allUsers.stream()
-                .sorted((u1, u2) -> Integer.compare(u2.getTotalQuizzesSolved(), u1.getTotalQuizzesSolved()))
-                .collect(Collectors.toList());
+    private static int pageNumber(Integer page) {
+        return page != null ? Math.max(0, page) : 0;
+    }
+
+    private static int clampPageSize(Integer size) {
+        return size != null ? Math.max(1, Math.min(size, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+    }
+
+    // Read through the projection so a cached response never holds the entity's lazy collection
+    private List<String> linksOf(Long userId) {
+        List<String> links = new ArrayList<>();
+        for (Object[] row : userRepository.findLinksByUserIdIn(List.of(userId))) {
+            links.add((String) row[1]);
+        }
+        return List.copyOf(links);
+    }
 
-        int rank = 1;
-        for (User user : sortedUsers) {
-            if (user.getId().equals(userId)) {
-                break;
+    // Applies the changes to a fresh copy of the user and saves it, starting over when a concurrent solve bumped the version
+    private User saveWithRetry(Long userId, Consumer<User> changes) {
+        for (int retry = 1; ; retry++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+                    changes.accept(user);
+                    return userRepository.save(user);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (retry >= MAX_SAVE_RETRIES) {
+                    throw e;
+                }
             }
-            rank++;
         }
+    }
+
+    // Stats, links and ranks for the whole page are fetched up front: two queries however large the page
+    private List<SearchProfileResponse> toSearchProfileResponses(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        Map<Long, UserStats> stats = userStatsService.getAll(userIds);
+        Map<Long, List<String>> links = new HashMap<>();
+        for (Object[] row : userRepository.findLinksByUserIdIn(userIds)) {
+            links.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Long, Integer> ranks = rankingEngine.ranksOf(userIds);
+
+        List<SearchProfileResponse> responses = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserStats userStats = stats.get(user.getId());
+            Integer rank = ranks.get(user.getId());
+            responses.add(SearchProfileResponse.builder()
+                    .userId(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail() != null ? user.getEmail() : "N/A")
+                    .college(user.getCollege())
+                    .role(user.getRole() != null ? user.getRole().name() : "STUDENT")
+                    .totalQuizzesSolved(user.getTotalQuizzesSolved())
+                    .currentStreak(user.getCurrentStreak())
+                    .profilePicture(user.getProfilePicture())
+                    .profilePictureThumbnail(profilePictureStore.thumbnailUrl(user.getProfilePicture(), LIST_THUMBNAIL_SIZE))
+                    .averageScore(userStats != null ? UserStatsService.averageScore(userStats) : 0.0)
+                    .rank(rank != null ? rankLabel(rank) : calculateRank(user))
+                    .isPublic(true)
+                    .links(links.getOrDefault(user.getId(), Collections.emptyList()))
+                    .build());
+        }
+        return responses;
+    }
+
+    // Rank comes from the shared ranking engine in O(log n) instead of loading and sorting every user
+    private String calculateRank(User user) {
+        Integer rank = rankingEngine.rankOf(user.getId());
+        if (rank == null) {
+            rankingEngine.track(user.getId(), user.getTotalQuizzesSolved() != null ? user.getTotalQuizzesSolved() : 0, user.getCollege());
+            rank = rankingEngine.rankOf(user.getId());
+        }
+        return rankLabel(rank);
+    }
 
+    private static String rankLabel(int rank) {
         if (rank <= 10) return "Top 10";
         if (rank <= 50) return "Top 50";
         if (rank <=100) return "Top 100";
@@ -0,0 +1,218 @@
+package com.quizapp.service;
+
+import com.quizapp.dto.ProfileSuggestion;
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.event.UserScoreChangedEvent;
+import com.quizapp.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix autocomplete over student names, name words and colleges.
+ * An immutable radix trie is built from a projection of the users table; every node holds the top students under it
+ * by totalQuizzesSolved, so a lookup is a walk down the edges and returns the precomputed list without touching JPA.
+ * User and score changes mark the trie dirty and a periodic job rebuilds and swaps it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileSuggestIndex {
+    public static final int TOP_K = 10;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Node EMPTY = new Node("", new char[0], new Node[0], new Candidate[0]);
+
+    private final UserRepository userRepository;
+
+    private final AtomicReference<Node> root = new AtomicReference<>(EMPTY);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(UserScoreChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.profile.suggest-refresh-ms:60000}")
+    public void refreshIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the trie from the users table and swaps it in.
+     */
+    public void rebuild() {
+        List<Object[]> rows = userRepository.findSuggestFields();
+        List<Key> keys = new ArrayList<>();
+        for (Object[] row : rows) {
+            Candidate candidate = new Candidate(
+                new ProfileSuggestion((Long) row[0], (String) row[1], (String) row[2]),
+                row[3] != null ? (Integer) row[3] : 0);
+            for (String term : terms((String) row[1], (String) row[2])) {
+                keys.add(new Key(term, candidate));
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text));
+        root.set(keys.isEmpty() ? EMPTY : build(keys, 0, keys.size(), 0));
+        log.info("Profile suggest index built from {} users, {} keys", rows.size(), keys.size());
+    }
+
+    /**
+     * Up to limit students whose name, a word of their name or their college starts with the prefix, most active first.
+     */
+    public List<ProfileSuggestion> suggest(String prefix, int limit) {
+        String q = normalize(prefix);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        Node node = root.get();
+        int pos = 0;
+        while (true) {
+            String label = node.label;
+            int remaining = q.length() - pos;
+            if (remaining <= label.length()) {
+                return label.startsWith(q.substring(pos)) ? node.take(limit) : List.of();
+            }
+            if (!q.startsWith(label, pos)) {
+                return List.of();
+            }
+            pos += label.length();
+            int child = Arrays.binarySearch(node.firstChars, q.charAt(pos));
+            if (child < 0) {
+                return List.of();
+            }
+            node = node.children[child];
+        }
+    }
+
+    // Sorted keys in [from, to) share their first depth characters; the node's label is the rest of their common prefix
+    private static Node build(List<Key> keys, int from, int to, int depth) {
+        String first = keys.get(from).text;
+        String last = keys.get(to - 1).text;
+        int common = depth;
+        while (common < first.length() && common < last.length() && first.charAt(common) == last.charAt(common)) {
+            common++;
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        int i = from;
+        while (i < to && keys.get(i).text.length() == common) {
+            candidates.add(keys.get(i).candidate);
+            i++;
+        }
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = keys.get(i).text.charAt(common);
+            int end = i;
+            while (end < to && keys.get(end).text.charAt(common) == c) {
+                end++;
+            }
+            Node child = build(keys, i, end, common);
+            children.add(child);
+            candidates.addAll(Arrays.asList(child.top));
+            i = end;
+        }
+        char[] firstChars = new char[children.size()];
+        for (int c = 0; c < firstChars.length; c++) {
+            firstChars[c] = children.get(c).label.charAt(0);
+        }
+        return new Node(first.substring(depth, common), firstChars, children.toArray(new Node[0]), top(candidates));
+    }
+
+    // Best TOP_K distinct students; a student reached through several keys counts once
+    private static Candidate[] top(List<Candidate> candidates) {
+        candidates.sort(Comparator.comparingInt(Candidate::score).reversed()
+            .thenComparing(candidate -> candidate.suggestion().getUserId()));
+        Set<Candidate> top = new LinkedHashSet<>();
+        for (Candidate candidate : candidates) {
+            if (top.size() == TOP_K) {
+                break;
+            }
+            top.add(candidate);
+        }
+        return top.toArray(new Candidate[0]);
+    }
+
+    private static Set<String> terms(String name, String college) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalizedName = normalize(name);
+        if (!normalizedName.isEmpty()) {
+            terms.add(normalizedName);
+            for (String word : normalizedName.split(" ")) {
+                terms.add(word);
+            }
+        }
+        String normalizedCollege = normalize(college);
+        if (!normalizedCollege.isEmpty()) {
+            terms.add(normalizedCollege);
+        }
+        return terms;
+    }
+
+    // Lower case, accents stripped, whitespace collapsed
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String normalized = SPACES.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private record Key(String text, Candidate candidate) {
+    }
+
+    private record Candidate(ProfileSuggestion suggestion, int score) {
+    }
+
+    private static final class Node {
+        final String label;
+        final char[] firstChars;
+        final Node[] children;
+        final Candidate[] top;
+
+        Node(String label, char[] firstChars, Node[] children, Candidate[] top) {
+            this.label = label;
+            this.firstChars = firstChars;
+            this.children = children;
+            this.top = top;
+        }
+
+        List<ProfileSuggestion> take(int limit) {
+            int count = Math.min(Math.max(0, limit), top.length);
+            List<ProfileSuggestion> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(top[i].suggestion());
+            }
+            return result;
+        }
+    }
+}
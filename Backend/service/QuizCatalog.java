@@ -0,0 +1,227 @@
+package com.quizapp.service;
+
+import com.quizapp.model.Quiz;
+import com.quizapp.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versioned, copy-on-write snapshot of the quiz bank.
+ * Reads are lock-free lookups against the current snapshot; writes build a new snapshot and swap it in.
+ * Quizzes handed out by the catalog are shared copies and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizCatalog {
+    private static final long[] NO_IDS = new long[0];
+
+    private final QuizRepository quizRepository;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.build(0L, Collections.emptyList()));
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the snapshot from the database.
+     */
+    public synchronized void reload() {
+        List<Quiz> quizzes = quizRepository.findAll().stream().map(QuizCatalog::copyOf).toList();
+        current.set(Snapshot.build(current.get().getVersion() + 1, quizzes));
+    }
+
+    /**
+     * Adds or replaces a quiz after it has been saved.
+     */
+    public synchronized void put(Quiz quiz) {
+        Snapshot snapshot = current.get();
+        Map<Long, Quiz> byId = new HashMap<>(snapshot.byId);
+        byId.put(quiz.getId(), copyOf(quiz));
+        current.set(Snapshot.build(snapshot.getVersion() + 1, byId.values()));
+    }
+
+    /**
+     * Drops a quiz after it has been deleted.
+     */
+    public synchronized void remove(Long quizId) {
+        Snapshot snapshot = current.get();
+        if (!snapshot.byId.containsKey(quizId)) {
+            return;
+        }
+        Map<Long, Quiz> byId = new HashMap<>(snapshot.byId);
+        byId.remove(quizId);
+        current.set(Snapshot.build(snapshot.getVersion() + 1, byId.values()));
+    }
+
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    public Optional<Quiz> find(Long quizId) {
+        return Optional.ofNullable(current.get().byId.get(quizId));
+    }
+
+    public List<Quiz> all() {
+        return current.get().quizzes;
+    }
+
+    public int size() {
+        return current.get().quizzes.size();
+    }
+
+    public List<String> topics() {
+        return current.get().topics;
+    }
+
+    /**
+     * Sorted ids of all quizzes in a topic, matched case-insensitively. Null or empty topic means every quiz.
+     */
+    public long[] idsForTopic(String topic) {
+        Snapshot snapshot = current.get();
+        if (topic == null || topic.isEmpty()) {
+            return snapshot.allIds;
+        }
+        return snapshot.byTopic.getOrDefault(normalize(topic), NO_IDS);
+    }
+
+    /**
+     * Sorted ids of all quizzes in a topic at the given knowledge level.
+     */
+    public long[] idsFor(String topic, Quiz.KnowledgeLevel level) {
+        if (level == null) {
+            return idsForTopic(topic);
+        }
+        Snapshot snapshot = current.get();
+        if (topic == null || topic.isEmpty()) {
+            return snapshot.byLevel.getOrDefault(level, NO_IDS);
+        }
+        return snapshot.byTopicLevel.getOrDefault(new TopicLevel(normalize(topic), level), NO_IDS);
+    }
+
+    private static String normalize(String topic) {
+        return topic.toLowerCase(Locale.ROOT);
+    }
+
+    private static Quiz copyOf(Quiz quiz) {
+        return Quiz.builder()
+            .id(quiz.getId())
+            .topic(quiz.getTopic())
+            .question(quiz.getQuestion())
+            .option1(quiz.getOption1())
+            .option2(quiz.getOption2())
+            .option3(quiz.getOption3())
+            .option4(quiz.getOption4())
+            .correctAnswer(quiz.getCorrectAnswer())
+            .explanation(quiz.getExplanation())
+            .knowledgeLevel(quiz.getKnowledgeLevel())
+            .build();
+    }
+
+    private record TopicLevel(String topic, Quiz.KnowledgeLevel level) {
+    }
+
+    /**
+     * Immutable view of the quiz bank at one version.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<Long, Quiz> byId;
+        private final List<Quiz> quizzes;
+        private final long[] allIds;
+        private final Map<String, long[]> byTopic;
+        private final Map<Quiz.KnowledgeLevel, long[]> byLevel;
+        private final Map<TopicLevel, long[]> byTopicLevel;
+        private final List<String> topics;
+
+        private Snapshot(long version, Map<Long, Quiz> byId, List<Quiz> quizzes, long[] allIds,
+                         Map<String, long[]> byTopic, Map<Quiz.KnowledgeLevel, long[]> byLevel,
+                         Map<TopicLevel, long[]> byTopicLevel, List<String> topics) {
+            this.version = version;
+            this.byId = byId;
+            this.quizzes = quizzes;
+            this.allIds = allIds;
+            this.byTopic = byTopic;
+            this.byLevel = byLevel;
+            this.byTopicLevel = byTopicLevel;
+            this.topics = topics;
+        }
+
+        static Snapshot build(long version, Collection<Quiz> source) {
+            List<Quiz> sorted = new ArrayList<>(source);
+            sorted.sort(Comparator.comparing(Quiz::getId));
+
+            Map<Long, Quiz> byId = new LinkedHashMap<>();
+            Map<String, List<Long>> topicIds = new HashMap<>();
+            Map<Quiz.KnowledgeLevel, List<Long>> levelIds = new HashMap<>();
+            Map<TopicLevel, List<Long>> topicLevelIds = new HashMap<>();
+            Set<String> topics = new LinkedHashSet<>();
+            long[] allIds = new long[sorted.size()];
+            int i = 0;
+            for (Quiz quiz : sorted) {
+                byId.put(quiz.getId(), quiz);
+                allIds[i++] = quiz.getId();
+                if (quiz.getTopic() != null) {
+                    topics.add(quiz.getTopic());
+                    String key = normalize(quiz.getTopic());
+                    topicIds.computeIfAbsent(key, k -> new ArrayList<>()).add(quiz.getId());
+                    if (quiz.getKnowledgeLevel() != null) {
+                        topicLevelIds.computeIfAbsent(new TopicLevel(key, quiz.getKnowledgeLevel()), k -> new ArrayList<>()).add(quiz.getId());
+                    }
+                }
+                if (quiz.getKnowledgeLevel() != null) {
+                    levelIds.computeIfAbsent(quiz.getKnowledgeLevel(), k -> new ArrayList<>()).add(quiz.getId());
+                }
+            }
+            return new Snapshot(
+                version,
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableList(sorted),
+                allIds,
+                toArrays(topicIds),
+                toArrays(levelIds),
+                toArrays(topicLevelIds),
+                List.copyOf(topics));
+        }
+
+        private static <K> Map<K, long[]> toArrays(Map<K, List<Long>> source) {
+            Map<K, long[]> result = new HashMap<>();
+            source.forEach((key, ids) -> result.put(key, ids.stream().mapToLong(Long::longValue).toArray()));
+            return Collections.unmodifiableMap(result);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Quiz get(long quizId) {
+            return byId.get(quizId);
+        }
+
+        public boolean contains(long quizId) {
+            return byId.containsKey(quizId);
+        }
+
+        /**
+         * Sorted ids of every quiz in this snapshot. Callers must not modify the array.
+         */
+        public long[] allIds() {
+            return allIds;
+        }
+    }
+}
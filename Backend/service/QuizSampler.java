@@ -0,0 +1,83 @@
+package com.quizapp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws k distinct quiz ids from a candidate index, skipping excluded ids.
+ * Uses rejection sampling, which costs O(k) draws while most candidates are eligible, and falls back to
+ * reservoir sampling over the index once the user has excluded most of it. Pass a seeded generator for reproducible draws.
+ */
+@Component
+public class QuizSampler {
+    private static final int REJECTION_FACTOR = 4;
+    private static final int MIN_REJECTION_BUDGET = 32;
+
+    public long[] sample(long[] candidateIds, LongPredicate excluded, int k, RandomGenerator random) {
+        if (k <= 0 || candidateIds.length == 0) {
+            return new long[0];
+        }
+        // Never size a buffer beyond the index, whatever the caller asked for
+        k = Math.min(k, candidateIds.length);
+        long[] picked = rejectionSample(candidateIds, excluded, k, random);
+        return picked != null ? picked : reservoirSample(candidateIds, excluded, k, random);
+    }
+
+    /**
+     * Returns null when the draw budget runs out before k eligible ids are found.
+     */
+    private long[] rejectionSample(long[] candidateIds, LongPredicate excluded, int k, RandomGenerator random) {
+        if (k > candidateIds.length / 2) {
+            // Too large a share of the index; duplicates would dominate the draws
+            return null;
+        }
+        long[] picked = new long[k];
+        Set<Integer> seen = new HashSet<>();
+        int found = 0;
+        int budget = Math.max(MIN_REJECTION_BUDGET, k * REJECTION_FACTOR);
+        for (int draw = 0; draw < budget && found < k; draw++) {
+            int index = random.nextInt(candidateIds.length);
+            if (!seen.add(index)) {
+                continue;
+            }
+            long id = candidateIds[index];
+            if (!excluded.test(id)) {
+                picked[found++] = id;
+            }
+        }
+        return found == k ? picked : null;
+    }
+
+    private long[] reservoirSample(long[] candidateIds, LongPredicate excluded, int k, RandomGenerator random) {
+        long[] reservoir = new long[k];
+        int eligible = 0;
+        for (long id : candidateIds) {
+            if (excluded.test(id)) {
+                continue;
+            }
+            if (eligible < k) {
+                reservoir[eligible] = id;
+            } else {
+                int slot = random.nextInt(eligible + 1);
+                if (slot < k) {
+                    reservoir[slot] = id;
+                }
+            }
+            eligible++;
+        }
+        long[] result = eligible < k ? Arrays.copyOf(reservoir, eligible) : reservoir;
+        // Reservoir slots keep index order for the first k; shuffle so the response order is random too
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+}
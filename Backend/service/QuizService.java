@@ -13,21 +13,48 @@ import org.springframework.stereotype.Service;
 import com.quizapp.dto.QuizSubmitRequest;
 import java.util.Map;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
-import com.quizapp.repository.LeaderboardRepository;
-import com.quizapp.model.Leaderboard;
 import java.time.LocalDate;
+import com.quizapp.dto.QuizListPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import com.quizapp.dto.AnswerKey;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.util.Collections;
 
 @Service
 @RequiredArgsConstructor
 public class QuizService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_ATTEMPT_RETRIES = 5;
+    private static final String INSERT_ATTEMPT_SQL =
+        "INSERT INTO user_quiz_attempts (user_id, quiz_id, attempted, solved, date_solved, score) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ATTEMPT_SQL =
+        "UPDATE user_quiz_attempts SET attempted = ?, solved = ?, date_solved = ?, score = ? WHERE id = ?";
+
     private final QuizRepository quizRepository;
     private final UserRepository userRepository;
     private final UserQuizAttemptRepository userQuizAttemptRepository;
-    private final LeaderboardRepository leaderboardRepository;
+    private final LeaderboardService leaderboardService;
+    private final QuizCatalog quizCatalog;
+    private final SolvedQuizCache solvedQuizCache;
+    private final AnswerKeyStore answerKeyStore;
+    private final UserProgressService userProgressService;
+    private final UserStatsService userStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
     public QuizResponse createQuiz(QuizCreateRequest request) {
         Quiz quiz = Quiz.builder()
@@ -42,21 +69,105 @@ public class QuizService {
             .knowledgeLevel(Quiz.KnowledgeLevel.valueOf(request.getKnowledgeLevel().toUpperCase()))
             .build();
         quiz = quizRepository.save(quiz);
+        quizCatalog.put(quiz);
         return toResponse(quiz);
     }
 
     public QuizResponse getQuiz(Long id) {
-        Quiz quiz = quizRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        return toResponse(quiz);
+        return toResponse(getQuizEntity(id));
+    }
+
+    /**
+     * Looks the quiz up in the catalog, falling back to the database for quizzes added outside this node.
+     */
+    public Quiz getQuizEntity(Long id) {
+        return quizCatalog.find(id).orElseGet(() -> {
+            Quiz quiz = quizRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Quiz not found"));
+            quizCatalog.put(quiz);
+            return quiz;
+        });
     }
 
     public List<QuizResponse> getAllQuizzes() {
-        return quizRepository.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+        return quizCatalog.all().stream().map(QuizService::toResponse).collect(Collectors.toList());
     }
 
     public List<Quiz> getAllQuizEntities() {
-        return quizRepository.findAll();
+        return quizCatalog.all();
+    }
+
+    /**
+     * Returns one keyset page of the quiz list, filtered in the database.
+     * The cursor has the form "lastId:lastQuestionNumber" so numbering continues across pages.
+     * Without a cursor or limit the whole filtered list is returned, as older clients expect.
+     */
+    public QuizListPage getQuizListPage(Long userId, String topic, String knowledgeLevel, String cursor, Integer limit) {
+        long afterId = 0L;
+        int questionNumber = 1;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = cursor.split(":");
+            try {
+                afterId = Long.parseLong(parts[0]);
+                questionNumber = parts.length > 1 ? Integer.parseInt(parts[1]) + 1 : 1;
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+        boolean paged = (cursor != null && !cursor.isEmpty()) || limit != null;
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        Pageable pageRequest = paged ? PageRequest.of(0, pageSize + 1) : Pageable.unpaged();
+
+        boolean hasTopic = topic != null && !topic.isEmpty();
+        Quiz.KnowledgeLevel level = null;
+        if (knowledgeLevel != null && !knowledgeLevel.isEmpty()) {
+            try {
+                level = Quiz.KnowledgeLevel.valueOf(knowledgeLevel.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // No quiz has an unknown level
+                return new QuizListPage(new ArrayList<>(), null);
+            }
+        }
+
+        List<Quiz> quizzes;
+        if (hasTopic && level != null) {
+            quizzes = quizRepository.findByTopicAndKnowledgeLevelAndIdGreaterThanOrderByIdAsc(topic, level, afterId, pageRequest);
+        } else if (hasTopic) {
+            quizzes = quizRepository.findByTopicAndIdGreaterThanOrderByIdAsc(topic, afterId, pageRequest);
+        } else if (level != null) {
+            quizzes = quizRepository.findByKnowledgeLevelAndIdGreaterThanOrderByIdAsc(level, afterId, pageRequest);
+        } else {
+            quizzes = quizRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageRequest);
+        }
+
+        boolean hasMore = paged && quizzes.size() > pageSize;
+        if (hasMore) {
+            quizzes = quizzes.subList(0, pageSize);
+        }
+
+        LongPredicate solved = solvedQuizCache.solvedFilter(userId);
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Quiz quiz : quizzes) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", quiz.getId());
+            map.put("questionNumber", questionNumber++);
+            map.put("question", quiz.getQuestion());
+            map.put("topic", quiz.getTopic());
+            map.put("knowledgeLevel", quiz.getKnowledgeLevel() != null ? quiz.getKnowledgeLevel().name() : "");
+            map.put("option1", quiz.getOption1());
+            map.put("option2", quiz.getOption2());
+            map.put("option3", quiz.getOption3());
+            map.put("option4", quiz.getOption4());
+            map.put("status", solved.test(quiz.getId()) ? "Solved" : "Unsolved");
+            items.add(map);
+        }
+
+        String nextCursor = hasMore
+            ? quizzes.get(quizzes.size() - 1).getId() + ":" + (questionNumber - 1)
+            : null;
+        return new QuizListPage(items, nextCursor);
     }
 
     public QuizResponse updateQuiz(Long id, QuizCreateRequest request) {
@@ -72,109 +183,209 @@ public class QuizService {
         quiz.setExplanation(request.getExplanation());
         quiz.setKnowledgeLevel(Quiz.KnowledgeLevel.valueOf(request.getKnowledgeLevel().toUpperCase()));
         quiz = quizRepository.save(quiz);
+        quizCatalog.put(quiz);
+        answerKeyStore.invalidate(id);
         return toResponse(quiz);
     }
 
     public void deleteQuiz(Long id) {
         quizRepository.deleteById(id);
-    }
-
-    // Add this method for daily quiz logic
-    public QuizResponse getDailyQuiz(Long userId) {
-        // Get all quiz IDs the user has attempted
-        List<Long> attemptedQuizIds = userQuizAttemptRepository.findByUserId(userId)
-            .stream().map(a -> a.getQuiz().getId()).collect(Collectors.toList());
-        // Find a quiz not attempted by this user
-        Optional<Quiz> quiz = quizRepository.findAll().stream()
-            .filter(q -> !attemptedQuizIds.contains(q.getId()))
-            .findAny(); // or randomize
-        if (quiz.isPresent()) {
-            return toResponse(quiz.get());
-        } else {
-            throw new RuntimeException("No new quizzes available");
-        }
+        quizCatalog.remove(id);
+        answerKeyStore.invalidate(id);
     }
 
     public String submitQuiz(QuizSubmitRequest request) {
-        // Fetch user and quiz
-        User user = userRepository.findById(request.getUserId())
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        Quiz quiz = quizRepository.findById(request.getQuizId())
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        // Fetch all questions for the quiz
-        Map<Long, String> answers = request.getAnswers();
-        int total = answers.size(); // Assuming total questions are the number of answers provided
+        Long userId = request.getUserId();
+        if (request.getQuizId() == null) {
+            throw new RuntimeException("Quiz not found");
+        }
+        getQuizEntity(request.getQuizId());
+        Map<Long, String> answers = request.getAnswers() != null ? request.getAnswers() : Collections.emptyMap();
+        int total = answers.size();
+        // Grade every answer against keys fetched in one batched read
+        Map<Long, AnswerKey> answerKeys = answerKeyStore.getAll(answers.keySet());
+        Map<Long, Boolean> graded = new HashMap<>();
         int correct = 0;
         for (Map.Entry<Long, String> entry : answers.entrySet()) {
-            String submitted = entry.getValue();
-            // Assuming QuestionRepository is no longer available, so we'll just check if the answer is correct
-            // This part of the logic needs to be adapted based on how questions are stored or retrieved
-            // For now, we'll just count correct answers based on the submitted answers
-            // If questions were stored, we would fetch them here and compare
-            // Example: Question question = questionRepository.findById(questionId).orElse(null);
-            // if (question != null && submitted.equals(question.getCorrectAnswer())) {
-            //     correct++;
-            // }
-            // Since questions are not directly available, we'll assume all submitted answers are correct
-            // This is a simplification and might need adjustment based on actual question storage
-            correct++;
+            AnswerKey answerKey = answerKeys.get(entry.getKey());
+            if (answerKey == null) {
+                // Unknown question: counts against the score but is not recorded
+                continue;
+            }
+            boolean isCorrect = answerKey.getCorrectAnswer().equalsIgnoreCase(entry.getValue());
+            graded.put(entry.getKey(), isCorrect);
+            if (isCorrect) {
+                correct++;
+            }
         }
-        // Record attempt
-        UserQuizAttempt attempt = UserQuizAttempt.builder()
-            .user(user)
-            .quiz(quiz)
-            .solved(true)
-            .build();
-        userQuizAttemptRepository.save(attempt);
-
-        // Upsert leaderboard entry for today and user's college
-        LocalDate today = LocalDate.now();
-        Leaderboard leaderboard = leaderboardRepository.findByDate(today).stream()
-            .filter(l -> l.getUser().getId().equals(user.getId()))
-            .findFirst()
-            .orElse(null);
-        if (leaderboard == null) {
-            leaderboard = Leaderboard.builder()
-                .date(today)
-                .user(user)
-                .score(correct)
-                .college(user.getCollege())
-                .build();
-        } else {
-            leaderboard.setScore(leaderboard.getScore() + correct);
-        }
-        leaderboardRepository.save(leaderboard);
+        recordSubmission(userId, graded, answerKeys);
+        graded.forEach((quizId, solved) -> solvedQuizCache.record(userId, quizId, solved));
 
         // Return score
         return "Score: " + correct + "/" + total;
     }
 
+    /**
+     * Writes all graded attempts with JDBC batches, applies the progress and stats deltas and moves the daily
+     * leaderboard, all in one transaction retried on conflicts. Only quizzes that become solved score, on today's
+     * row; an answer that un-solves a quiz takes its point back from the day it was scored, so resubmitting
+     * cannot raise the score.
+     */
+    private void recordSubmission(Long userId, Map<Long, Boolean> graded, Map<Long, AnswerKey> answerKeys) {
+        for (int retry = 1; ; retry++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    User user = userRepository.findById(userId)
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+                    Map<Long, Object[]> existing = new HashMap<>();
+                    if (!graded.isEmpty()) {
+                        for (Object[] row : userQuizAttemptRepository.findAttemptStatusByUserIdAndQuizIdIn(userId, graded.keySet())) {
+                            existing.put((Long) row[1], row);
+                        }
+                    }
+
+                    LocalDate today = LocalDate.now();
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    List<Object[]> inserts = new ArrayList<>();
+                    List<Object[]> updates = new ArrayList<>();
+                    List<UserStatsService.AttemptChange> changes = new ArrayList<>();
+                    int newlySolved = 0;
+                    Map<LocalDate, Integer> unsolvedByDay = new HashMap<>();
+                    boolean userChanged = false;
+                    for (Map.Entry<Long, Boolean> entry : graded.entrySet()) {
+                        boolean solved = entry.getValue();
+                        int score = solved ? 1 : 0;
+                        Object[] row = existing.get(entry.getKey());
+                        boolean wasSolved = row != null && (Boolean) row[2];
+                        boolean wasAttempted = row != null && (Boolean) row[3];
+                        int previousScore = row != null && row[4] != null ? (Integer) row[4] : 0;
+                        LocalDateTime solvedAt = wasSolved ? (LocalDateTime) row[5] : null;
+                        if (row == null) {
+                            inserts.add(new Object[] { userId, entry.getKey(), true, solved, now, score });
+                        } else {
+                            // A quiz that stays solved keeps the date of its first solve
+                            Timestamp dateSolved = wasSolved && solved
+                                ? (solvedAt != null ? Timestamp.valueOf(solvedAt) : null)
+                                : now;
+                            updates.add(new Object[] { true, solved, dateSolved, score, row[0] });
+                        }
+                        if (solved && !wasSolved) {
+                            newlySolved++;
+                        } else if (wasSolved && !solved && solvedAt != null) {
+                            unsolvedByDay.merge(solvedAt.toLocalDate(), 1, Integer::sum);
+                        }
+                        userChanged |= userProgressService.apply(user, wasSolved,
+                            solvedAt != null ? solvedAt.toLocalDate() : null, solved, today);
+                        changes.add(new UserStatsService.AttemptChange(answerKeys.get(entry.getKey()).getTopic(),
+                            wasAttempted, wasSolved, previousScore, solved, score));
+                    }
+                    if (!inserts.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_ATTEMPT_SQL, inserts);
+                    }
+                    if (!updates.isEmpty()) {
+                        jdbcTemplate.batchUpdate(UPDATE_ATTEMPT_SQL, updates);
+                    }
+                    userStatsService.apply(userId, changes);
+                    if (userChanged) {
+                        userRepository.save(user);
+                    }
+
+                    // Keyed increments of the user's daily leaderboard rows
+                    if (newlySolved > 0) {
+                        leaderboardService.addDailyScore(user, today, newlySolved);
+                    }
+                    unsolvedByDay.forEach((day, count) -> leaderboardService.removeDailyScore(userId, day, count));
+                });
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (retry >= MAX_ATTEMPT_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
     public void markQuizAttempted(Long userId, Long quizId, boolean solved) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new RuntimeException("Quiz not found"));
-        UserQuizAttempt attempt = userQuizAttemptRepository.findByUserId(userId).stream()
-            .filter(a -> a.getQuiz().getId().equals(quizId)).findFirst().orElse(null);
-        if (attempt == null) {
-            attempt = UserQuizAttempt.builder()
-                .user(user)
-                .quiz(quiz)
-                .attempted(true)
-                .solved(solved)
-                .build();
-        } else {
-            attempt.setAttempted(true);
-            attempt.setSolved(solved);
+        Quiz quiz = getQuizEntity(quizId);
+        recordAttempt(userId, quizId, quiz.getTopic(), solved, attempt -> { });
+    }
+
+    /**
+     * Grades one answer and records it. Safe to call concurrently for the same user and quiz.
+     */
+    public Map<String, Object> solveQuiz(Long userId, Long quizId, String answer) {
+        AnswerKey answerKey = answerKeyStore.get(quizId);
+        boolean correct = answerKey.getCorrectAnswer().equalsIgnoreCase(answer);
+        recordAttempt(userId, quizId, answerKey.getTopic(), correct, attempt -> {
+            attempt.setScore(correct ? 1 : 0);
+            attempt.setDateSolved(LocalDateTime.now());
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("correct", correct);
+        // Only return explanation if answer is correct
+        if (correct) {
+            result.put("explanation", answerKey.getExplanation());
+        }
+        return result;
+    }
+
+    /**
+     * Upserts the (user, quiz) attempt and applies the progress and stats deltas in one transaction.
+     * A concurrent insert of the same pair trips the unique constraint and a concurrent counter update
+     * trips User.version; either way the transaction rolls back and is retried against the winner's row.
+     */
+    private void recordAttempt(Long userId, Long quizId, String topic, boolean solved, Consumer<UserQuizAttempt> details) {
+        for (int retry = 1; ; retry++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    User user = userRepository.findById(userId)
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+                    UserQuizAttempt attempt = userQuizAttemptRepository.findByUserIdAndQuizId(userId, quizId).orElse(null);
+                    boolean wasSolved = attempt != null && attempt.isSolved();
+                    boolean wasAttempted = attempt != null && attempt.isAttempted();
+                    int previousScore = attempt != null && attempt.getScore() != null ? attempt.getScore() : 0;
+                    LocalDateTime solvedAt = wasSolved ? attempt.getDateSolved() : null;
+                    if (attempt == null) {
+                        attempt = UserQuizAttempt.builder()
+                            .user(user)
+                            .quiz(quizRepository.getReferenceById(quizId))
+                            .build();
+                    }
+                    attempt.setAttempted(true);
+                    attempt.setSolved(solved);
+                    details.accept(attempt);
+                    if (wasSolved && solved) {
+                        // A quiz that stays solved keeps the date of its first solve
+                        attempt.setDateSolved(solvedAt);
+                    } else if (solved) {
+                        attempt.setDateSolved(LocalDateTime.now());
+                    }
+                    // Flush now so a duplicate insert fails here rather than at commit
+                    userQuizAttemptRepository.saveAndFlush(attempt);
+                    int score = attempt.getScore() != null ? attempt.getScore() : 0;
+                    userStatsService.apply(userId, List.of(new UserStatsService.AttemptChange(
+                        topic, wasAttempted, wasSolved, previousScore, solved, score)));
+                    if (userProgressService.apply(user, wasSolved,
+                            solvedAt != null ? solvedAt.toLocalDate() : null, solved, LocalDate.now())) {
+                        userRepository.save(user);
+                    }
+                });
+                break;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (retry >= MAX_ATTEMPT_RETRIES) {
+                    throw e;
+                }
+            }
         }
-        userQuizAttemptRepository.save(attempt);
+        solvedQuizCache.record(userId, quizId, solved);
     }
 
     public boolean hasUserSolvedQuiz(Long userId, Long quizId) {
-        return userQuizAttemptRepository.existsByUserIdAndQuizId(userId, quizId) &&
-            userQuizAttemptRepository.findByUserId(userId).stream()
-                .anyMatch(a -> a.getQuiz().getId().equals(quizId) && a.isSolved());
+        return solvedQuizCache.isSolved(userId, quizId);
     }
 
-    private QuizResponse toResponse(Quiz quiz) {
+    static QuizResponse toResponse(Quiz quiz) {
         return QuizResponse.builder()
                 .id(quiz.getId())
                 .topic(quiz.getTopic())
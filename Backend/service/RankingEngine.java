@@ -0,0 +1,309 @@
+package com.quizapp.service;
+
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.event.UserScoreChangedEvent;
+import com.quizapp.repository.UserRepository;
+import com.quizapp.utils.LongObjectMap;
+import com.quizapp.utils.OrderStatisticTree;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking by totalQuizzesSolved, ties broken by lower user id first, kept globally and per college.
+ * Built from the users table at startup and then moved by UserScoreChangedEvent and UserChangedEvent after each commit,
+ * so rank, top-k and window reads are O(log n) lookups instead of loading and sorting users.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankingEngine {
+    private final UserRepository userRepository;
+
+    private final LongObjectMap<Member> members = new LongObjectMap<>(1024);
+    private final OrderStatisticTree global = new OrderStatisticTree();
+    private final Map<String, OrderStatisticTree> colleges = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Bumped on every change, so readers can tell whether a cached view of the ranking is stale
+    private volatile long version;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every user's score and college from the database.
+     */
+    public void rebuild() {
+        List<Object[]> rows = userRepository.findAllScores();
+        lock.writeLock().lock();
+        try {
+            members.clear();
+            global.clear();
+            colleges.clear();
+            for (Object[] row : rows) {
+                int score = row[1] != null ? (Integer) row[1] : 0;
+                add((Long) row[0], score, (String) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Ranking engine loaded {} users", rows.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(UserScoreChangedEvent event) {
+        updateScore(event.userId(), event.delta());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.userId());
+        } else {
+            moveToCollege(event.userId(), event.college(), event.score());
+        }
+    }
+
+    /**
+     * Moves a user's score by delta. A user the engine has not seen yet starts from zero with no college.
+     */
+    public void updateScore(long userId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Member member = members.get(userId);
+            if (member == null) {
+                add(userId, Math.max(0, delta), null);
+                return;
+            }
+            String college = member.college();
+            int next = Math.max(0, member.score() + delta);
+            removeMember(userId, member);
+            add(userId, next, college);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a user with the given score and college unless the engine already tracks them.
+     */
+    public void track(long userId, int score, String college) {
+        lock.writeLock().lock();
+        try {
+            if (members.get(userId) == null) {
+                add(userId, score, college);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the user in the given college partition, keeping a known score or using the given one for a new user.
+     */
+    public void moveToCollege(long userId, String college, int score) {
+        lock.writeLock().lock();
+        try {
+            Member member = members.get(userId);
+            if (member != null) {
+                score = member.score();
+                removeMember(userId, member);
+            }
+            add(userId, score, college);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Member member = members.get(userId);
+            if (member != null) {
+                removeMember(userId, member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Integer scoreOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Member member = members.get(userId);
+            return member != null ? member.score() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based global rank of the user, or null if the engine does not track them.
+     */
+    public Integer rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Member member = members.get(userId);
+            return member != null ? global.countBefore(userId, member.score()) + 1 : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based global ranks of the given users under one read lock. Users the engine does not track are left out.
+     */
+    public Map<Long, Integer> ranksOf(Collection<Long> userIds) {
+        Map<Long, Integer> ranks = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long userId : userIds) {
+                Member member = members.get(userId);
+                if (member != null) {
+                    ranks.put(userId, global.countBefore(userId, member.score()) + 1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranks;
+    }
+
+    /**
+     * 1-based rank of the user within the given college, or null if they are not a member of it.
+     */
+    public Integer rankInCollege(long userId, String college) {
+        lock.readLock().lock();
+        try {
+            Member member = members.get(userId);
+            if (member == null || college == null || !college.equals(member.college())) {
+                return null;
+            }
+            return colleges.get(college).countBefore(userId, member.score()) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k highest-ranked users in rank order.
+     */
+    public List<Ranked> topK(int k) {
+        lock.readLock().lock();
+        try {
+            return slice(global, 0, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k highest-ranked users of a college in rank order.
+     */
+    public List<Ranked> topKInCollege(String college, int k) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree tree = college != null ? colleges.get(college) : null;
+            return tree != null ? slice(tree, 0, k) : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Users ranked r - radius .. r + radius around the given user, globally or within their own college.
+     * Empty if the engine does not track the user.
+     */
+    public List<Ranked> around(long userId, int radius, boolean inCollege) {
+        lock.readLock().lock();
+        try {
+            Member member = members.get(userId);
+            if (member == null) {
+                return Collections.emptyList();
+            }
+            OrderStatisticTree tree = inCollege ? colleges.get(member.college()) : global;
+            if (tree == null) {
+                return Collections.emptyList();
+            }
+            int index = tree.countBefore(userId, member.score());
+            int from = Math.max(0, index - radius);
+            return slice(tree, from, index + radius + 1 - from);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ranked users globally, or in the given college.
+     */
+    public int size(String college) {
+        lock.readLock().lock();
+        try {
+            if (college == null) {
+                return global.size();
+            }
+            OrderStatisticTree tree = colleges.get(college);
+            return tree != null ? tree.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size(null);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    private void add(long userId, int score, String college) {
+        version++;
+        members.put(userId, new Member(score, college));
+        global.insert(userId, score);
+        if (college != null) {
+            colleges.computeIfAbsent(college, c -> new OrderStatisticTree()).insert(userId, score);
+        }
+    }
+
+    private void removeMember(long userId, Member member) {
+        version++;
+        members.remove(userId);
+        global.remove(userId, member.score());
+        if (member.college() != null) {
+            OrderStatisticTree tree = colleges.get(member.college());
+            tree.remove(userId, member.score());
+            if (tree.size() == 0) {
+                colleges.remove(member.college());
+            }
+        }
+    }
+
+    private static List<Ranked> slice(OrderStatisticTree tree, int from, int count) {
+        int to = Math.min(tree.size(), from + Math.max(0, count));
+        List<Ranked> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(new Ranked(tree.idAt(i), tree.scoreAt(i), i + 1));
+        }
+        return result;
+    }
+
+    private record Member(int score, String college) {
+    }
+
+    public record Ranked(long userId, int score, int rank) {
+    }
+}
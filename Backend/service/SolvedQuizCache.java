@@ -0,0 +1,133 @@
+package com.quizapp.service;
+
+import com.quizapp.repository.UserQuizAttemptRepository;
+import com.quizapp.utils.CompactIdSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Per-user compressed sets of attempted and solved quiz ids.
+ * A user's sets are loaded from user_quiz_attempts on first use and kept current by the attempt write paths,
+ * so solved checks are a bit test instead of hydrating every UserQuizAttempt.
+ */
+@Component
+@RequiredArgsConstructor
+public class SolvedQuizCache {
+    private static final int MAX_USERS = 50_000;
+
+    private final UserQuizAttemptRepository userQuizAttemptRepository;
+    private final ConcurrentHashMap<Long, UserQuizIds> cache = new ConcurrentHashMap<>();
+
+    public boolean isSolved(Long userId, long quizId) {
+        return load(userId).isSolved(quizId);
+    }
+
+    public boolean isAttempted(Long userId, long quizId) {
+        return load(userId).isAttempted(quizId);
+    }
+
+    public int solvedCount(Long userId) {
+        return load(userId).solvedCount();
+    }
+
+    /**
+     * Predicate view of the user's solved set, for filtering candidate ids.
+     */
+    public LongPredicate solvedFilter(Long userId) {
+        UserQuizIds ids = load(userId);
+        return ids::isSolved;
+    }
+
+    /**
+     * Predicate view of the user's attempted set.
+     */
+    public LongPredicate attemptedFilter(Long userId) {
+        UserQuizIds ids = load(userId);
+        return ids::isAttempted;
+    }
+
+    /**
+     * Candidate ids the user has not solved, in their original order.
+     */
+    public long[] unsolved(Long userId, long[] candidateIds) {
+        UserQuizIds ids = load(userId);
+        return Arrays.stream(candidateIds).filter(id -> !ids.isSolved(id)).toArray();
+    }
+
+    /**
+     * Records an attempt after it has been saved. Users that are not cached are left alone;
+     * their next load reads the saved row from the database.
+     */
+    public void record(Long userId, long quizId, boolean solved) {
+        // computeIfPresent waits for an in-flight load of the same user, so the update is never lost
+        cache.computeIfPresent(userId, (id, ids) -> {
+            ids.record(quizId, solved);
+            return ids;
+        });
+    }
+
+    public void evict(Long userId) {
+        cache.remove(userId);
+    }
+
+    private UserQuizIds load(Long userId) {
+        UserQuizIds ids = cache.get(userId);
+        if (ids != null) {
+            return ids;
+        }
+        if (cache.size() >= MAX_USERS) {
+            Iterator<Long> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                cache.remove(keys.next());
+            }
+        }
+        return cache.computeIfAbsent(userId, id -> {
+            UserQuizIds loaded = new UserQuizIds();
+            List<Object[]> rows = userQuizAttemptRepository.findQuizStatusByUserId(id);
+            for (Object[] row : rows) {
+                loaded.add((Long) row[0], (Boolean) row[1]);
+            }
+            return loaded;
+        });
+    }
+
+    private static final class UserQuizIds {
+        private final CompactIdSet attempted = new CompactIdSet();
+        private final CompactIdSet solved = new CompactIdSet();
+
+        synchronized boolean isSolved(long quizId) {
+            return solved.contains(quizId);
+        }
+
+        synchronized boolean isAttempted(long quizId) {
+            return attempted.contains(quizId);
+        }
+
+        synchronized int solvedCount() {
+            return solved.size();
+        }
+
+        // Loading only adds, so a duplicate unsolved row never hides a solved one
+        synchronized void add(long quizId, boolean isSolved) {
+            attempted.add(quizId);
+            if (isSolved) {
+                solved.add(quizId);
+            }
+        }
+
+        synchronized void record(long quizId, boolean isSolved) {
+            attempted.add(quizId);
+            if (isSolved) {
+                solved.add(quizId);
+            } else {
+                solved.remove(quizId);
+            }
+        }
+    }
+}
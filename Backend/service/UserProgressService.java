@@ -0,0 +1,143 @@
+package com.quizapp.service;
+
+import com.quizapp.event.ProfileChangedEvent;
+import com.quizapp.event.SolveChangedEvent;
+import com.quizapp.event.UserScoreChangedEvent;
+import com.quizapp.model.User;
+import com.quizapp.repository.UserQuizAttemptRepository;
+import com.quizapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps User.totalQuizzesSolved, daysActive and currentStreak up to date in O(1) per graded answer,
+ * using User.lastActiveDate instead of replaying the attempt history. Callers save the user inside their own
+ * transaction, where the User version column turns a concurrent update into a retryable conflict.
+ * Every change to the solved count is published as a UserScoreChangedEvent for the ranking engine, and as a
+ * SolveChangedEvent dated by the solve for the windowed rankings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProgressService {
+    private static final int MAX_BACKFILL_RETRIES = 5;
+
+    private final UserRepository userRepository;
+    private final UserQuizAttemptRepository userQuizAttemptRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Updates the counters on a loaded user. Returns true if anything changed.
+     * The solved count moves by the change in this attempt's solved flag; days active and the streak
+     * only move on the first correct answer of a day, as before. solvedOn is the day the attempt was solved
+     * before this answer, if it was.
+     */
+    public boolean apply(User user, boolean wasSolved, LocalDate solvedOn, boolean solved, LocalDate today) {
+        boolean changed = false;
+        int delta = (solved ? 1 : 0) - (wasSolved ? 1 : 0);
+        if (delta > 0) {
+            eventPublisher.publishEvent(new SolveChangedEvent(user.getId(), today, 1));
+        } else if (delta < 0 && solvedOn != null) {
+            eventPublisher.publishEvent(new SolveChangedEvent(user.getId(), solvedOn, -1));
+        }
+        if (delta != 0) {
+            int previous = valueOf(user.getTotalQuizzesSolved());
+            int total = Math.max(0, previous + delta);
+            user.setTotalQuizzesSolved(total);
+            eventPublisher.publishEvent(new UserScoreChangedEvent(user.getId(), total - previous));
+            changed = true;
+        }
+        if (solved) {
+            LocalDate lastActive = user.getLastActiveDate();
+            if (lastActive == null || lastActive.isBefore(today)) {
+                boolean consecutive = lastActive != null && lastActive.equals(today.minusDays(1));
+                user.setCurrentStreak(consecutive ? valueOf(user.getCurrentStreak()) + 1 : 1);
+                user.setDaysActive(valueOf(user.getDaysActive()) + 1);
+                user.setLastActiveDate(today);
+                eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * One-off job that derives the counters and lastActiveDate from existing user_quiz_attempts rows.
+     * Each user is recomputed in its own transaction, retried like the solve path when a concurrent answer
+     * conflicts with it. Returns the number of users updated.
+     */
+    public int backfill() {
+        List<Long> userIds = userRepository.findAllIds();
+        int updated = 0;
+        for (Long userId : userIds) {
+            if (backfillWithRetry(userId)) {
+                updated++;
+            }
+        }
+        log.info("Backfilled progress counters for {} users", updated);
+        return updated;
+    }
+
+    private boolean backfillWithRetry(Long userId) {
+        for (int retry = 1; ; retry++) {
+            try {
+                return backfillUser(userId);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (retry >= MAX_BACKFILL_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean backfillUser(Long userId) {
+        Boolean done = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null) {
+                return false;
+            }
+            TreeSet<LocalDate> activeDays = new TreeSet<>();
+            for (LocalDateTime solvedAt : userQuizAttemptRepository.findSolvedDatesByUserId(userId)) {
+                activeDays.add(solvedAt.toLocalDate());
+            }
+            int streak = 0;
+            LocalDate expected = activeDays.isEmpty() ? null : activeDays.last();
+            for (LocalDate day : activeDays.descendingSet()) {
+                if (!day.equals(expected)) {
+                    break;
+                }
+                streak++;
+                expected = day.minusDays(1);
+            }
+            int previous = valueOf(user.getTotalQuizzesSolved());
+            int total = (int) userQuizAttemptRepository.countByUserIdAndSolvedTrue(userId);
+            user.setTotalQuizzesSolved(total);
+            if (total != previous) {
+                eventPublisher.publishEvent(new UserScoreChangedEvent(userId, total - previous));
+            }
+            user.setDaysActive(activeDays.size());
+            user.setCurrentStreak(streak);
+            user.setLastActiveDate(activeDays.isEmpty() ? null : activeDays.last());
+            userRepository.save(user);
+            eventPublisher.publishEvent(new ProfileChangedEvent(userId));
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -5,6 +5,8 @@ import com.quizapp.dto.LoginRequest;
 import com.quizapp.dto.RegisterRequest;
 import com.quizapp.dto.GoogleSignInRequest;
 import com.quizapp.dto.ProfileResponse;
+import com.quizapp.event.ProfileChangedEvent;
+import com.quizapp.event.UserChangedEvent;
 import com.quizapp.exception.EmailAlreadyExistsException;
 import com.quizapp.model.User;
 import com.quizapp.model.EmailVerificationToken;
@@ -13,7 +15,9 @@ import com.quizapp.repository.EmailVerificationTokenRepository;
 import com.quizapp.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +30,8 @@ public class UserService {
     private final JwtUtil jwtUtil;
     private final EmailVerificationTokenRepository tokenRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
@@ -46,6 +52,7 @@ public class UserService {
                 .build();
 
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(user));
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
         ProfileResponse profile = ProfileResponse.builder()
                 .userId(user.getId())
@@ -73,7 +80,8 @@ public class UserService {
 
         // Update lastLogin
         user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> userRepository.updateLastLogin(user.getId(), user.getLastLogin()));
+        eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
 
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
         ProfileResponse profile = ProfileResponse.builder()
@@ -103,6 +111,7 @@ public class UserService {
                     .googleId(request.getIdToken()) // Store idToken or Google userId
                     .build();
             userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.saved(user));
         }
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
         ProfileResponse profile = ProfileResponse.builder()
@@ -148,6 +157,7 @@ public class UserService {
         
         user.setEmailVerified(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
         tokenRepository.delete(verificationToken);
         
         // Generate new token and return updated user data
@@ -172,6 +182,7 @@ public class UserService {
         User user = verificationToken.getUser();
         user.setEmailVerified(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
         tokenRepository.delete(verificationToken);
         return true;
     }
@@ -0,0 +1,292 @@
+package com.quizapp.service;
+
+import com.quizapp.event.ProfileChangedEvent;
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.model.UserStats;
+import com.quizapp.model.UserTopicStats;
+import com.quizapp.repository.UserQuizAttemptRepository;
+import com.quizapp.repository.UserRepository;
+import com.quizapp.repository.UserStatsRepository;
+import com.quizapp.repository.UserTopicStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the user_stats and user_topic_stats aggregates over user_quiz_attempts.
+ * Graded answers apply their deltas with keyed increments inside the transaction that writes the attempt;
+ * a missing row is seeded from the attempt table, which already holds the new attempt. Users who predate the
+ * aggregate are seeded the same way on their first read. A nightly job recomputes the aggregates to detect and repair drift.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+    private static final String NO_TOPIC = "";
+    private static final int VERIFY_BATCH_SIZE = 500;
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserTopicStatsRepository userTopicStatsRepository;
+    private final UserQuizAttemptRepository userQuizAttemptRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Applies attempt changes for one user. Must run in the caller's transaction, after the attempts are written.
+     * Like the daily leaderboard row, a missing row is seeded after an increment that touched nothing, so two first
+     * writes can collide on the key or deadlock on its gap lock; the caller must retry on
+     * DataIntegrityViolationException and PessimisticLockingFailureException.
+     */
+    public void apply(Long userId, Collection<AttemptChange> changes) {
+        Totals total = new Totals();
+        Map<String, Totals> byTopic = new HashMap<>();
+        for (AttemptChange change : changes) {
+            total.add(change);
+            byTopic.computeIfAbsent(topicKey(change.topic()), t -> new Totals()).add(change);
+        }
+        if (total.isZero()) {
+            return;
+        }
+        eventPublisher.publishEvent(new ProfileChangedEvent(userId));
+        if (userStatsRepository.addDeltas(userId, total.attempted, total.solved, total.score) == 0) {
+            userStatsRepository.saveAndFlush(expectedStats(userId));
+        }
+        for (Map.Entry<String, Totals> entry : byTopic.entrySet()) {
+            Totals delta = entry.getValue();
+            if (delta.isZero()) {
+                continue;
+            }
+            if (userTopicStatsRepository.addDeltas(userId, entry.getKey(), delta.attempted, delta.solved, delta.score) == 0) {
+                UserTopicStats seeded = expectedTopicStats(userId).get(entry.getKey());
+                if (seeded != null) {
+                    userTopicStatsRepository.saveAndFlush(seeded);
+                }
+            }
+        }
+    }
+
+    /**
+     * Totals for the user; zeros for a user with no attempts yet. A user with attempts but no row yet is seeded
+     * from the attempt table on this read.
+     */
+    public UserStats get(Long userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> seed(expectedStats(userId)));
+    }
+
+    /**
+     * Totals for the given users that have any, keyed by user id. Missing rows are seeded as in {@link #get}.
+     */
+    public Map<Long, UserStats> getAll(Collection<Long> userIds) {
+        Map<Long, UserStats> stats = userStatsRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(UserStats::getUserId, row -> row));
+        List<Long> missing = userIds.stream().filter(id -> !stats.containsKey(id)).distinct().collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            for (Object[] row : userQuizAttemptRepository.findAttemptTotalsByUserIdIn(missing)) {
+                Long userId = (Long) row[0];
+                stats.put(userId, seed(toStats(userId, row)));
+            }
+        }
+        return stats;
+    }
+
+    public static double averageScore(UserStats stats) {
+        return stats.getAttempted() > 0 ? (double) stats.getScoreSum() / stats.getAttempted() : 0.0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                userTopicStatsRepository.deleteByUserId(event.userId());
+                userStatsRepository.deleteById(event.userId());
+            });
+        }
+    }
+
+    @Scheduled(cron = "${app.stats.verify-cron:0 45 3 * * *}")
+    public void verifyNightly() {
+        verify(true);
+    }
+
+    /**
+     * Recomputes the aggregates from user_quiz_attempts in batches of users and compares them with the stored rows.
+     * With repair, a drifted user's rows are rewritten from a fresh recount in its own transaction.
+     */
+    public VerificationResult verify(boolean repair) {
+        List<Long> userIds = userRepository.findAllIds();
+        int drifted = 0;
+        int repaired = 0;
+        for (int from = 0; from < userIds.size(); from += VERIFY_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + VERIFY_BATCH_SIZE, userIds.size()));
+            Map<Long, UserStats> expected = new HashMap<>();
+            for (Object[] row : userQuizAttemptRepository.findAttemptTotalsByUserIdIn(batch)) {
+                expected.put((Long) row[0], toStats((Long) row[0], row));
+            }
+            Map<Long, Map<String, UserTopicStats>> expectedTopics = new HashMap<>();
+            for (Object[] row : userQuizAttemptRepository.findTopicTotalsByUserIdIn(batch)) {
+                UserTopicStats topic = toTopicStats((Long) row[0], row);
+                expectedTopics.computeIfAbsent(topic.getUserId(), id -> new HashMap<>()).put(topic.getTopic(), topic);
+            }
+            Map<Long, UserStats> actual = userStatsRepository.findAllById(batch).stream()
+                .collect(Collectors.toMap(UserStats::getUserId, stats -> stats));
+            Map<Long, Map<String, UserTopicStats>> actualTopics = new HashMap<>();
+            for (UserTopicStats topic : userTopicStatsRepository.findByUserIdIn(batch)) {
+                actualTopics.computeIfAbsent(topic.getUserId(), id -> new HashMap<>()).put(topic.getTopic(), topic);
+            }
+
+            for (Long userId : batch) {
+                boolean statsMatch = sameTotals(expected.get(userId), actual.get(userId));
+                boolean topicsMatch = sameTopics(expectedTopics.getOrDefault(userId, Map.of()), actualTopics.getOrDefault(userId, Map.of()));
+                if (statsMatch && topicsMatch) {
+                    continue;
+                }
+                drifted++;
+                log.warn("User stats drift for user {}: expected {}, stored {}", userId, expected.get(userId), actual.get(userId));
+                if (repair) {
+                    transactionTemplate.executeWithoutResult(status -> rewrite(userId));
+                    repaired++;
+                }
+            }
+        }
+        log.info("Verified stats for {} users, {} drifted, {} repaired", userIds.size(), drifted, repaired);
+        return new VerificationResult(userIds.size(), drifted, repaired);
+    }
+
+    private void rewrite(Long userId) {
+        userTopicStatsRepository.deleteByUserId(userId);
+        userStatsRepository.save(expectedStats(userId));
+        userTopicStatsRepository.saveAll(expectedTopicStats(userId).values());
+    }
+
+    // Inserts a missing row computed from the attempt table; a concurrent writer that got there first, or that
+    // deadlocked this insert, wins
+    private UserStats seed(UserStats expected) {
+        if (expected.getAttempted() == 0) {
+            return expected;
+        }
+        try {
+            return userStatsRepository.saveAndFlush(expected);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            return userStatsRepository.findById(expected.getUserId()).orElse(expected);
+        }
+    }
+
+    private UserStats expectedStats(Long userId) {
+        List<Object[]> rows = userQuizAttemptRepository.findAttemptTotalsByUserIdIn(List.of(userId));
+        return rows.isEmpty() ? UserStats.builder().userId(userId).build() : toStats(userId, rows.get(0));
+    }
+
+    private Map<String, UserTopicStats> expectedTopicStats(Long userId) {
+        Map<String, UserTopicStats> topics = new HashMap<>();
+        for (Object[] row : userQuizAttemptRepository.findTopicTotalsByUserIdIn(List.of(userId))) {
+            UserTopicStats topic = toTopicStats(userId, row);
+            topics.put(topic.getTopic(), topic);
+        }
+        return topics;
+    }
+
+    // Rows of findAttemptTotalsByUserIdIn: (userId, attempted, solved, scoreSum)
+    private static UserStats toStats(Long userId, Object[] row) {
+        return UserStats.builder()
+            .userId(userId)
+            .attempted(((Number) row[1]).intValue())
+            .solved(((Number) row[2]).intValue())
+            .scoreSum(((Number) row[3]).longValue())
+            .build();
+    }
+
+    // Rows of findTopicTotalsByUserIdIn: (userId, topic, attempted, solved, scoreSum)
+    private static UserTopicStats toTopicStats(Long userId, Object[] row) {
+        return UserTopicStats.builder()
+            .userId(userId)
+            .topic(topicKey((String) row[1]))
+            .attempted(((Number) row[2]).intValue())
+            .solved(((Number) row[3]).intValue())
+            .scoreSum(((Number) row[4]).longValue())
+            .build();
+    }
+
+    // A missing row and an all-zero row are the same totals
+    private static boolean sameTotals(UserStats expected, UserStats actual) {
+        return attempted(expected) == attempted(actual)
+            && solved(expected) == solved(actual)
+            && scoreSum(expected) == scoreSum(actual);
+    }
+
+    private static boolean sameTopics(Map<String, UserTopicStats> expected, Map<String, UserTopicStats> actual) {
+        for (String topic : expected.keySet()) {
+            if (!sameTopicTotals(expected.get(topic), actual.get(topic))) {
+                return false;
+            }
+        }
+        for (String topic : actual.keySet()) {
+            if (!expected.containsKey(topic) && !sameTopicTotals(null, actual.get(topic))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameTopicTotals(UserTopicStats expected, UserTopicStats actual) {
+        return (expected != null ? expected.getAttempted() : 0) == (actual != null ? actual.getAttempted() : 0)
+            && (expected != null ? expected.getSolved() : 0) == (actual != null ? actual.getSolved() : 0)
+            && (expected != null ? expected.getScoreSum() : 0) == (actual != null ? actual.getScoreSum() : 0);
+    }
+
+    private static int attempted(UserStats stats) {
+        return stats != null ? stats.getAttempted() : 0;
+    }
+
+    private static int solved(UserStats stats) {
+        return stats != null ? stats.getSolved() : 0;
+    }
+
+    private static long scoreSum(UserStats stats) {
+        return stats != null ? stats.getScoreSum() : 0;
+    }
+
+    private static String topicKey(String topic) {
+        return Objects.requireNonNullElse(topic, NO_TOPIC);
+    }
+
+    /**
+     * One attempt row before and after a graded answer. A new row has wasAttempted false and previousScore 0.
+     */
+    public record AttemptChange(String topic, boolean wasAttempted, boolean wasSolved, int previousScore,
+                                boolean solved, int score) {
+    }
+
+    public record VerificationResult(int usersChecked, int drifted, int repaired) {
+    }
+
+    private static final class Totals {
+        int attempted;
+        int solved;
+        long score;
+
+        void add(AttemptChange change) {
+            attempted += change.wasAttempted() ? 0 : 1;
+            solved += (change.solved() ? 1 : 0) - (change.wasSolved() ? 1 : 0);
+            score += change.score() - change.previousScore();
+        }
+
+        boolean isZero() {
+            return attempted == 0 && solved == 0 && score == 0;
+        }
+    }
+}
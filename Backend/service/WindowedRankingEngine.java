@@ -0,0 +1,287 @@
+package com.quizapp.service;
+
+import com.quizapp.event.UserChangedEvent;
+import com.quizapp.event.SolveChangedEvent;
+import com.quizapp.repository.UserQuizAttemptRepository;
+import com.quizapp.utils.LongObjectMap;
+import com.quizapp.utils.OrderStatisticTree;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rolling solve counts for today, the last 7 days and the last 30 days, ranked per window.
+ * Each user has a 30-slot ring buffer of daily solve counts with running sums per window, so a solve is O(1) plus
+ * one tree update per window. Sums are rotated when the day changes; only users with solves in the last 30 days are kept.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WindowedRankingEngine {
+    private static final int DAYS = 30;
+
+    public enum Window {
+        TODAY, WEEK, MONTH
+    }
+
+    private final UserQuizAttemptRepository userQuizAttemptRepository;
+
+    private final LongObjectMap<Counts> counts = new LongObjectMap<>(1024);
+    private final Map<Window, OrderStatisticTree> trees = new EnumMap<>(Window.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentDay;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the last 30 days of solves from user_quiz_attempts.
+     */
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = userQuizAttemptRepository.findSolvedSince(today.minusDays(DAYS - 1).atStartOfDay());
+        lock.lock();
+        try {
+            counts.clear();
+            for (Window window : Window.values()) {
+                trees.put(window, new OrderStatisticTree());
+            }
+            currentDay = today.toEpochDay();
+            for (Object[] row : rows) {
+                long day = ((LocalDateTime) row[1]).toLocalDate().toEpochDay();
+                if (day <= currentDay) {
+                    add((Long) row[0], day, 1);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Windowed rankings loaded {} solves for {} users", rows.size(), counts.size());
+    }
+
+    /**
+     * Counts a new solve on its day and takes an undone solve back off the day it was counted on,
+     * which keeps the live sums equal to what rebuild() computes from the solved rows.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSolveChanged(SolveChangedEvent event) {
+        lock.lock();
+        try {
+            rotate();
+            if (event.delta() < 0 && counts.get(event.userId()) == null) {
+                // Nothing counted in the last 30 days
+                return;
+            }
+            add(event.userId(), event.solvedOn().toEpochDay(), event.delta());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Counts user = counts.remove(event.userId());
+            if (user != null) {
+                for (Window window : Window.values()) {
+                    setSum(window, event.userId(), user.sum(window), 0);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rotates every user's counts onto the new day right after midnight, so the first request of the day does not pay for it.
+     */
+    @Scheduled(cron = "${app.leaderboard.rotate-cron:1 0 0 * * *}")
+    public void rotateDaily() {
+        lock.lock();
+        try {
+            rotate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 1-based rank in the window. Users without solves in the window share the last place.
+     */
+    public int rankOf(Window window, long userId) {
+        lock.lock();
+        try {
+            rotate();
+            Counts user = counts.get(userId);
+            return trees.get(window).countBefore(userId, user != null ? user.sum(window) : 0) + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int scoreOf(Window window, long userId) {
+        lock.lock();
+        try {
+            rotate();
+            Counts user = counts.get(userId);
+            return user != null ? user.sum(window) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The k users with the most solves in the window, in rank order.
+     */
+    public List<RankingEngine.Ranked> topK(Window window, int k) {
+        lock.lock();
+        try {
+            rotate();
+            OrderStatisticTree tree = trees.get(window);
+            int count = Math.min(k, tree.size());
+            List<RankingEngine.Ranked> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new RankingEngine.Ranked(tree.idAt(i), tree.scoreAt(i), i + 1));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(long userId, long day, int solves) {
+        Counts user = counts.get(userId);
+        if (user == null) {
+            user = new Counts(currentDay);
+            counts.put(userId, user);
+        }
+        int[] before = user.sums();
+        user.add(day, solves);
+        reindex(userId, before, user);
+    }
+
+    // Moves every user onto today once per day change; users with nothing left in 30 days are dropped
+    private void rotate() {
+        long today = LocalDate.now().toEpochDay();
+        if (today <= currentDay) {
+            return;
+        }
+        currentDay = today;
+        for (long userId : counts.keys()) {
+            Counts user = counts.get(userId);
+            int[] before = user.sums();
+            user.advance(today);
+            reindex(userId, before, user);
+            if (user.sum(Window.MONTH) == 0) {
+                counts.remove(userId);
+            }
+        }
+    }
+
+    private void reindex(long userId, int[] before, Counts user) {
+        for (Window window : Window.values()) {
+            setSum(window, userId, before[window.ordinal()], user.sum(window));
+        }
+    }
+
+    // Zero sums are left out of the trees so they only hold users active in the window
+    private void setSum(Window window, long userId, int previous, int next) {
+        if (previous == next) {
+            return;
+        }
+        OrderStatisticTree tree = trees.get(window);
+        if (previous > 0) {
+            tree.remove(userId, previous);
+        }
+        if (next > 0) {
+            tree.insert(userId, next);
+        }
+    }
+
+    /**
+     * Ring buffer of daily solve counts for one user, indexed by epoch day modulo 30.
+     */
+    private static final class Counts {
+        private final int[] days = new int[DAYS];
+        private long lastDay;
+        private int today;
+        private int week;
+        private int month;
+
+        Counts(long day) {
+            this.lastDay = day;
+        }
+
+        int sum(Window window) {
+            return switch (window) {
+                case TODAY -> today;
+                case WEEK -> week;
+                case MONTH -> month;
+            };
+        }
+
+        // Sums indexed by Window ordinal
+        int[] sums() {
+            return new int[] { today, week, month };
+        }
+
+        void add(long day, int solves) {
+            long age = lastDay - day;
+            if (age < 0 || age >= DAYS) {
+                return;
+            }
+            days[(int) (day % DAYS)] += solves;
+            month += solves;
+            if (age < 7) {
+                week += solves;
+            }
+            if (age == 0) {
+                today += solves;
+            }
+        }
+
+        void advance(long day) {
+            long gap = day - lastDay;
+            if (gap <= 0) {
+                return;
+            }
+            if (gap >= DAYS) {
+                Arrays.fill(days, 0);
+                today = week = month = 0;
+                lastDay = day;
+                return;
+            }
+            // Days leaving the 7-day window, read before their slots can be reused below
+            for (long d = lastDay - 6; d <= Math.min(lastDay, day - 7); d++) {
+                week -= days[(int) (d % DAYS)];
+            }
+            // Days leaving the 30-day window occupy the slots of the new days
+            for (long d = lastDay + 1; d <= day; d++) {
+                int slot = (int) (d % DAYS);
+                month -= days[slot];
+                days[slot] = 0;
+            }
+            today = 0;
+            lastDay = day;
+        }
+    }
+}
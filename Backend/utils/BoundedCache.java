@@ -0,0 +1,118 @@
+package com.quizapp.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thread-safe LRU cache bounded by entry count, by total weight (for example bytes) and optionally by age.
+ * A value heavier than the whole weight budget is not cached. Counts hits, misses and evictions.
+ */
+public class BoundedCache<K, V> {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE, value -> 0);
+    }
+
+    public BoundedCache(int maxEntries, long maxWeight, ToIntFunction<V> weigher) {
+        this(maxEntries, maxWeight, weigher, 0);
+    }
+
+    /**
+     * A ttlMillis of zero or less keeps entries until they are evicted by size.
+     */
+    public BoundedCache(int maxEntries, long maxWeight, ToIntFunction<V> weigher, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        int valueWeight = weigher.applyAsInt(value);
+        if (valueWeight > maxWeight) {
+            remove(key);
+            return;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, valueWeight, System.currentTimeMillis()));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += valueWeight;
+        // Evict least recently used entries until both bounds hold
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        weight -= removed.weight;
+        return removed.value;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), weight, hits, misses, evictions);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.writtenAt >= ttlMillis;
+    }
+
+    /**
+     * Counters since the cache was created; evictions include expired entries.
+     */
+    public record Stats(int size, long weight, long hits, long misses, long evictions) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests > 0 ? (double) hits / requests : 0.0;
+        }
+    }
+
+    private record Entry<V>(V value, int weight, long writtenAt) {
+    }
+}
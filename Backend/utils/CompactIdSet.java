@@ -0,0 +1,194 @@
+package com.quizapp.utils;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ids, split into 65536-wide chunks.
+ * Sparse chunks are stored as sorted char arrays and switch to a 1024-word bitmap once they pass 4096 entries,
+ * so a user who solved a handful of quizzes costs a few bytes while a heavy solver costs at most 8 KB per chunk.
+ * Not thread-safe; callers synchronize.
+ */
+public class CompactIdSet {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private int[] keys = new int[0];
+    private Object[] containers = new Object[0];
+    private int cardinality;
+
+    public boolean contains(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, highBits(id));
+        if (index < 0) {
+            return false;
+        }
+        Object container = containers[index];
+        char low = lowBits(id);
+        if (container instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        ArrayContainer array = (ArrayContainer) container;
+        return Arrays.binarySearch(array.values, 0, array.size, low) >= 0;
+    }
+
+    /**
+     * Adds the id and returns true if it was not already present.
+     */
+    public boolean add(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id out of range: " + id);
+        }
+        int high = highBits(id);
+        char low = lowBits(id);
+        int index = Arrays.binarySearch(keys, high);
+        if (index < 0) {
+            index = -index - 1;
+            keys = insert(keys, index, high);
+            containers = insert(containers, index, new ArrayContainer());
+        }
+        Object container = containers[index];
+        boolean added;
+        if (container instanceof long[] bitmap) {
+            long mask = 1L << low;
+            added = (bitmap[low >>> 6] & mask) == 0;
+            bitmap[low >>> 6] |= mask;
+        } else {
+            ArrayContainer array = (ArrayContainer) container;
+            added = array.add(low);
+            if (array.size > ARRAY_LIMIT) {
+                containers[index] = array.toBitmap();
+            }
+        }
+        if (added) {
+            cardinality++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes the id and returns true if it was present.
+     */
+    public boolean remove(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, highBits(id));
+        if (index < 0) {
+            return false;
+        }
+        Object container = containers[index];
+        char low = lowBits(id);
+        boolean removed;
+        if (container instanceof long[] bitmap) {
+            long mask = 1L << low;
+            removed = (bitmap[low >>> 6] & mask) != 0;
+            bitmap[low >>> 6] &= ~mask;
+        } else {
+            removed = ((ArrayContainer) container).remove(low);
+        }
+        if (removed) {
+            cardinality--;
+        }
+        return removed;
+    }
+
+    public int size() {
+        return cardinality;
+    }
+
+    /**
+     * All ids in ascending order.
+     */
+    public long[] toArray() {
+        long[] result = new long[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long high = (long) keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[] bitmap) {
+                for (int word = 0; word < bitmap.length; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        result[n++] = high | ((long) word << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) container;
+                for (int j = 0; j < array.size; j++) {
+                    result[n++] = high | array.values[j];
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    private static int highBits(long id) {
+        return (int) (id >>> 16);
+    }
+
+    private static char lowBits(long id) {
+        return (char) (id & 0xFFFF);
+    }
+
+    private static int[] insert(int[] source, int index, int value) {
+        int[] result = new int[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static Object[] insert(Object[] source, int index, Object value) {
+        Object[] result = new Object[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static final class ArrayContainer {
+        private char[] values = new char[4];
+        private int size;
+
+        boolean add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return true;
+        }
+
+        boolean remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        long[] toBitmap() {
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < size; i++) {
+                char value = values[i];
+                bitmap[value >>> 6] |= 1L << value;
+            }
+            return bitmap;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.quizapp.utils;
+
+/**
+ * Treap of (id, score) entries ordered by score descending, then id ascending, with subtree sizes,
+ * so insert, remove, rank and select by position are all O(log n) expected.
+ * Each id must appear at most once and is removed with the score it was inserted with. Not thread-safe; callers synchronize.
+ */
+public class OrderStatisticTree {
+    private Node root;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void insert(long id, int score) {
+        root = insert(root, id, score, nextPriority());
+    }
+
+    /**
+     * Removes the entry and returns true if it was present.
+     */
+    public boolean remove(long id, int score) {
+        int before = size(root);
+        root = remove(root, id, score);
+        return size(root) < before;
+    }
+
+    /**
+     * Number of entries ordered before (id, score), whether or not the entry itself is present.
+     * The 1-based rank of a present entry is this plus one.
+     */
+    public int countBefore(long id, int score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(score, id, node.score, node.id);
+            if (c < 0) {
+                node = node.left;
+            } else {
+                count += size(node.left);
+                if (c == 0) {
+                    break;
+                }
+                count++;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Id at the given 0-based position.
+     */
+    public long idAt(int index) {
+        return select(index).id;
+    }
+
+    /**
+     * Score at the given 0-based position.
+     */
+    public int scoreAt(int index) {
+        return select(index).score;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    private Node select(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range for size " + size(root));
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node insert(Node node, long id, int score, int priority) {
+        if (node == null) {
+            return new Node(id, score, priority);
+        }
+        if (compare(score, id, node.score, node.id) < 0) {
+            node.left = insert(node.left, id, score, priority);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, id, score, priority);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, long id, int score) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(score, id, node.score, node.id);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = remove(node.left, id, score);
+        } else {
+            node.right = remove(node.right, id, score);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        update(right);
+        return right;
+    }
+
+    private static int compare(int scoreA, long idA, int scoreB, long idB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? -1 : 1;
+        }
+        return Long.compare(idA, idB);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    // xorshift64; priorities only need to be well spread, not secure
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (seed >>> 32);
+    }
+
+    private static final class Node {
+        final long id;
+        final int score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long id, int score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+}
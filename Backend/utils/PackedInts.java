@@ -0,0 +1,79 @@
+package com.quizapp.utils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Varint encoding for compact integer arrays. Sorted ids are stored as gaps from the previous id,
+ * so dense id ranges take one or two bytes per entry; other values are zigzag encoded so small negatives stay small.
+ */
+public final class PackedInts {
+
+    private PackedInts() {
+    }
+
+    /**
+     * Encodes ids that are sorted ascending as varint gaps.
+     */
+    public static byte[] encodeSortedLongs(long[] sorted) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2);
+        long previous = 0;
+        for (long value : sorted) {
+            if (value < previous) {
+                throw new IllegalArgumentException("Ids must be sorted ascending");
+            }
+            writeVarLong(out, value - previous);
+            previous = value;
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decodeSortedLongs(byte[] data, int count) {
+        long[] result = new long[count];
+        int[] position = { 0 };
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarLong(data, position);
+            result[i] = previous;
+        }
+        return result;
+    }
+
+    public static byte[] encodeInts(int[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length);
+        for (int value : values) {
+            writeVarLong(out, (value << 1) ^ (value >> 31));
+        }
+        return out.toByteArray();
+    }
+
+    public static int[] decodeInts(byte[] data, int count) {
+        int[] result = new int[count];
+        int[] position = { 0 };
+        for (int i = 0; i < count; i++) {
+            int zigzag = (int) readVarLong(data, position);
+            result[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        return result;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte b = data[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+}